@@ -4,10 +4,12 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
-import java.net.URL;
-import java.net.URLClassLoader;
-import java.util.HashMap;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -20,28 +22,16 @@ import com.arsframework.apidoc.core.Configuration;
 import com.arsframework.apidoc.core.ContextHelper;
 import com.arsframework.apidoc.core.DocumentHelper;
 import com.arsframework.apidoc.core.MethodAnalyser;
-import com.sun.javadoc.ClassDoc;
-import com.sun.javadoc.RootDoc;
-import com.sun.tools.javadoc.Main;
 import org.apache.maven.artifact.Artifact;
 import org.apache.maven.execution.MavenSession;
-import org.apache.maven.model.Plugin;
 import org.apache.maven.plugin.AbstractMojo;
-import org.apache.maven.plugin.BuildPluginManager;
-import org.apache.maven.plugin.MojoExecution;
 import org.apache.maven.plugin.MojoExecutionException;
-import org.apache.maven.plugin.descriptor.MojoDescriptor;
 import org.apache.maven.plugins.annotations.Component;
 import org.apache.maven.plugins.annotations.Execute;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.project.MavenProject;
-import org.codehaus.plexus.util.xml.Xpp3Dom;
-import org.codehaus.plexus.util.xml.Xpp3DomUtils;
-
-import static com.arsframework.plugin.apidoc.XmlHelper.configuration;
-import static com.arsframework.plugin.apidoc.XmlHelper.element;
-import static com.arsframework.plugin.apidoc.XmlHelper.toXpp3Dom;
+import org.eclipse.aether.RepositorySystem;
 
 /**
  * Abstract build mojo
@@ -65,13 +55,8 @@ public abstract class AbstractBuildMojo extends AbstractMojo {
      */
     private static final String PACKAGE_INFO_DEFINITION_NAME = "package-info.java";
 
-    /**
-     * Classpath separator
-     */
-    private static final String CLASSPATH_SEPARATOR = System.getProperty("path.separator");
-
     @Component
-    protected BuildPluginManager manager;
+    protected RepositorySystem repositorySystem;
 
     @Parameter(defaultValue = "${session}", readonly = true, required = true)
     protected MavenSession session;
@@ -125,7 +110,13 @@ public abstract class AbstractBuildMojo extends AbstractMojo {
     protected List<String> includeHeaders;
 
     /**
-     * Exclude class names
+     * Include class rules (class name prefixes, package globs or annotations starting with "@")
+     */
+    @Parameter
+    protected List<String> includeClasses;
+
+    /**
+     * Exclude class rules (class name prefixes, package globs or annotations starting with "@")
      */
     @Parameter
     protected List<String> excludeClasses;
@@ -136,48 +127,112 @@ public abstract class AbstractBuildMojo extends AbstractMojo {
     @Parameter
     protected String analyserFactoryClass;
 
+    /**
+     * Maximum number of class documents kept in memory
+     */
+    @Parameter(defaultValue = "1024", required = true)
+    protected int documentCacheSize;
+
+    /**
+     * Whether the fast mode is enabled, which skips the source unpacking and javadoc analysis and builds the apis from
+     * compiled classes only
+     */
+    @Parameter(property = "apidoc.fastMode", defaultValue = "false", required = true)
+    protected boolean enableFastMode;
+
+    /**
+     * Whether to write the api model snapshot
+     */
+    @Parameter(property = "apidoc.enableSnapshot", defaultValue = "false", required = true)
+    protected boolean enableSnapshot;
+
+    /**
+     * Api model snapshot file, which is the default current snapshot of the diff goal
+     */
+    @Parameter(property = "apidoc.snapshot", defaultValue = "${project.build.directory}/apidoc.snapshot",
+            required = true)
+    protected File snapshot;
+
     /**
      * Class and source mappings
      */
     private final Map<Class<?>, String> sources = new LinkedHashMap<>();
 
     /**
-     * Source file name and class document mappings
+     * Api candidate classes of project sources and included dependencies
+     */
+    private final Set<Class<?>> classes = new LinkedHashSet<>();
+
+    /**
+     * Indexed class loader
+     */
+    private IndexedClassLoader classLoader;
+
+    /**
+     * Class document loader
+     */
+    private DocumentLoader documentLoader;
+
+    /**
+     * Class include and exclude filter
+     */
+    private ClassFilter filter;
+
+    /**
+     * Dependency source resolver
+     */
+    private SourceResolver sourceResolver;
+
+    /**
+     * Api describer used in fast mode
+     */
+    private ApiDescriber describer;
+
+    /**
+     * Whether the missing parameter names warning has been logged
      */
-    private final Map<String, ClassDoc> documents = new HashMap<>();
+    private boolean parameterNameWarned;
 
     /**
      * Initialize class loader
      *
-     * @return URL class loader
+     * @return Indexed class loader
      * @throws IOException IO exception
      */
-    private URLClassLoader initializeClassLoader() throws IOException {
+    private IndexedClassLoader initializeClassLoader() throws IOException {
         Set<Artifact> artifacts = this.project.getArtifacts();
-        URL[] urls = new URL[this.compileDirectories.size() + artifacts.size()];
-        int i = 0;
+        List<File> locations = new ArrayList<>(this.compileDirectories.size() + artifacts.size());
         for (String directory : this.compileDirectories) {
-            urls[i++] = new File(directory).toURI().toURL();
+            locations.add(new File(directory));
         }
         for (Artifact artifact : artifacts) {
-            urls[i++] = artifact.getFile().toURI().toURL();
+            locations.add(artifact.getFile());
         }
-        return new URLClassLoader(urls, this.getClass().getClassLoader());
+        return new IndexedClassLoader(locations, this.getClass().getClassLoader());
     }
 
     /**
      * Initialize class of source directory
      *
      * @param directory Source directory
+     * @param pkg       Package name of directory
      */
-    private void initializeClasses(File directory) {
+    private void initializeClasses(File directory, String pkg) {
         for (File file : DocumentHelper.listDirectoryFiles(directory)) {
+            String name = pkg.isEmpty() ? file.getName() : pkg + "." + file.getName();
             if (file.isDirectory()) {
-                this.initializeClasses(file);
+                if (this.filter.isAcceptablePackage(name)) {
+                    this.initializeClasses(file, name);
+                }
             } else if (file.getName().endsWith(SOURCE_FILE_SUFFIX)
-                    && !file.getName().equalsIgnoreCase(PACKAGE_INFO_DEFINITION_NAME)) {
+                    && !file.getName().equalsIgnoreCase(PACKAGE_INFO_DEFINITION_NAME)
+                    && this.filter.accept(name.substring(0, name.length() - SOURCE_FILE_SUFFIX.length()))) {
                 try {
-                    this.sources.put(this.loadClass(file), file.getPath());
+                    Class<?> clazz = this.loadClass(file);
+                    if (this.filter.accept(clazz)) {
+                        this.sources.put(clazz, file.getPath());
+                        this.classes.add(clazz);
+                    }
                 } catch (IOException | ClassNotFoundException e) {
                     this.getLog().warn("Class loading failed: " + e.getMessage());
                 }
@@ -209,30 +264,55 @@ public abstract class AbstractBuildMojo extends AbstractMojo {
     }
 
     /**
-     * Unpack dependencies
+     * Get the source file of class
      *
-     * @throws MojoExecutionException Mojo execution exception
+     * @param clazz Class object
+     * @return Source file path or null if the class is excluded or the source is not available
      */
-    private void unpackDependencies() throws MojoExecutionException {
-        Plugin plugin = this.project.getPluginManagement().getPluginsAsMap()
-                .get("org.apache.maven.plugins:maven-dependency-plugin");
-        if (plugin == null) {
-            throw new MojoExecutionException("Dependency plugin could not be found in <pluginManagement>");
+    private String getSource(Class<?> clazz) {
+        if (this.filter.isExcluded(clazz.getName())) {
+            return null;
         }
+        String source = this.sources.get(clazz);
+        if (source == null) {
+            File file = new File(this.dependencySourceDirectory,
+                    clazz.getName().replace('.', '/') + SOURCE_FILE_SUFFIX);
+            source = file.isFile() ? file.getPath() : this.sourceResolver.resolve(clazz);
+        }
+        return source;
+    }
+
+    /**
+     * Initialize classes of class directory or jar file
+     *
+     * @param location Class directory or jar file
+     */
+    private void initializeCompiledClasses(File location) {
         try {
-            MojoDescriptor descriptor = this.manager.loadPlugin(plugin, this.project.getRemotePluginRepositories(),
-                    this.session.getRepositorySession()).getMojo("unpack-dependencies");
-            Xpp3Dom configuration = Xpp3DomUtils.mergeXpp3Dom(configuration(
-                    element("classifier", "sources"),
-                    element("includeScope", "compile"),
-                    element("includeGroupIds", String.join(",", ContextHelper.getIncludeGroupIdentities())),
-                    element("failOnMissingClassifierArtifact", "false"),
-                    element("outputDirectory", this.dependencySourceDirectory),
-                    element("markersDirectory", this.dependencySourceDirectory)
-            ), toXpp3Dom(descriptor.getMojoConfiguration()));
-            this.manager.executeMojo(this.session, new MojoExecution(descriptor, configuration));
-        } catch (Exception e) {
-            throw new MojoExecutionException("Unpack dependencies failed", e);
+            for (String name : this.classLoader.getClassNames(location, this.filter::isAcceptablePackage)) {
+                if (!this.filter.accept(name)) {
+                    continue;
+                }
+                try {
+                    Class<?> clazz = this.classLoader.loadClass(name);
+                    if (this.filter.accept(clazz)) {
+                        this.classes.add(clazz);
+                    }
+                } catch (ClassNotFoundException | LinkageError e) {
+                    this.getLog().warn("Class loading failed: " + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            this.getLog().warn("Class location loading failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Initialize classes of included dependencies, the sources of dependencies are resolved on demand
+     */
+    private void initializeDependencyClasses() {
+        for (Artifact artifact : this.sourceResolver.getIncludedArtifacts()) {
+            this.initializeCompiledClasses(artifact.getFile());
         }
     }
 
@@ -245,7 +325,34 @@ public abstract class AbstractBuildMojo extends AbstractMojo {
         List<String> roots = this.project.getCompileSourceRoots();
         if (roots != null && !roots.isEmpty()) {
             for (String root : roots) {
-                DocumentHelper.copyDirectory(new File(root), new File(this.dependencySourceDirectory));
+                File directory = new File(root);
+                if (directory.isDirectory()) {
+                    this.copySources(directory, new File(this.dependencySourceDirectory), "");
+                }
+            }
+        }
+    }
+
+    /**
+     * Copy the source directory, excluded packages and classes are skipped without being read
+     *
+     * @param source Source directory
+     * @param target Target directory
+     * @param pkg    Current package name
+     * @throws IOException IO exception
+     */
+    private void copySources(File source, File target, String pkg) throws IOException {
+        for (File file : DocumentHelper.listDirectoryFiles(source)) {
+            String name = pkg.isEmpty() ? file.getName() : pkg + "." + file.getName();
+            if (file.isDirectory()) {
+                if (!this.filter.isExcludedPackage(name)) {
+                    this.copySources(file, new File(target, file.getName()), name);
+                }
+            } else if (!file.getName().endsWith(SOURCE_FILE_SUFFIX)
+                    || !this.filter.isExcluded(name.substring(0, name.length() - SOURCE_FILE_SUFFIX.length()))) {
+                Files.createDirectories(target.toPath());
+                Files.copy(file.toPath(), new File(target, file.getName()).toPath(),
+                        StandardCopyOption.REPLACE_EXISTING);
             }
         }
     }
@@ -272,13 +379,12 @@ public abstract class AbstractBuildMojo extends AbstractMojo {
      */
     protected void initialize() throws IOException, MojoExecutionException {
         // Class loader
-        URLClassLoader classLoader = this.initializeClassLoader();
+        IndexedClassLoader classLoader = this.classLoader = this.initializeClassLoader();
         ContextHelper.setClassLoader(classLoader);
 
         // Class path
-        String classpath = String.join(CLASSPATH_SEPARATOR,
-                Stream.of(classLoader.getURLs()).map(URL::getPath).toArray(String[]::new));
-        ContextHelper.setClasspath(classpath);
+        ContextHelper.setClasspath(classLoader.getLocations().stream().map(File::getPath)
+                .collect(Collectors.joining(File.pathSeparator)));
 
         // Configuration
         Configuration configuration = Configuration.builder().displayDate(this.displayDate)
@@ -293,41 +399,59 @@ public abstract class AbstractBuildMojo extends AbstractMojo {
         groups.add(this.project.getGroupId());
         ContextHelper.setIncludeGroupIdentities(groups);
 
-        // Document provider
-        ContextHelper.setDocumentProvider(clazz -> {
-            Objects.requireNonNull(clazz, "clazz not specified");
-            String name = clazz.getName().replace("$", ".");
-            ClassDoc document = this.documents.get(name);
-            if (document == null) {
-                String source = this.sources.get(clazz);
-                if (source == null && (clazz = clazz.getDeclaringClass()) != null) {
-                    source = this.sources.get(clazz);
-                }
-                if (source == null) {
-                    return null;
-                }
-                Main.execute(classLoader, "-doclet", Doclet.class.getName(), "-quiet", "-encoding", "utf-8",
-                        "-sourcepath", this.dependencySourceDirectory, "-classpath", classpath, source);
-                if (Doclet.root != null) {
-                    for (ClassDoc doc : Doclet.root.classes()) {
-                        if (doc.toString().equals(name)) {
-                            document = doc;
-                        }
-                        this.documents.put(doc.toString(), doc);
-                    }
+        // Class filter
+        this.filter = new ClassFilter(this.includeClasses, this.excludeClasses);
+
+        // Dependency source resolver
+        this.sourceResolver = new SourceResolver(classLoader, this.filter, this.project.getArtifacts(), groups,
+                this.repositorySystem, this.session.getRepositorySession(),
+                this.project.getRemoteProjectRepositories(), new File(this.dependencySourceDirectory), this.getLog());
+
+        // Fast mode, apis are built from compiled classes only
+        if (this.enableFastMode) {
+            this.describer = new ApiDescriber();
+            ContextHelper.setDocumentProvider(clazz -> null);
+            for (String directory : this.compileDirectories) {
+                File location = new File(directory);
+                if (location.isDirectory()) {
+                    this.initializeCompiledClasses(location);
                 }
             }
-            return document;
-        });
+            this.initializeDependencyClasses();
+            return;
+        }
 
-        // Unpack dependencies
-        this.unpackDependencies();
+        // Document provider
+        DocumentLoader loader = this.documentLoader = new DocumentLoader(classLoader, this.dependencySourceDirectory,
+                this::getSource, this.documentCacheSize);
+        ContextHelper.setDocumentProvider(loader::load);
 
         // Unpack project sources
         this.unpackProjectSources();
 
         // initialize classes
-        this.initializeClasses(new File(this.dependencySourceDirectory));
+        this.initializeClasses(new File(this.dependencySourceDirectory), "");
+        this.initializeDependencyClasses();
+    }
+
+    /**
+     * Describe the api with parameter names and annotation values when no document is available in fast mode
+     *
+     * @param api    Api object
+     * @param method Api method
+     * @return Api object
+     */
+    private Api describe(Api api, Method method) {
+        if (!this.enableFastMode) {
+            return api;
+        }
+        String[] names = this.describer.getParameterNames(method);
+        if (names == null && !this.parameterNameWarned) {
+            this.parameterNameWarned = true;
+            this.getLog().warn("Parameter names are not present in class files, compile with -parameters or -g: "
+                    + method.getDeclaringClass().getName());
+        }
+        return this.describer.describe(api, method, names);
     }
 
     /**
@@ -338,12 +462,10 @@ public abstract class AbstractBuildMojo extends AbstractMojo {
      */
     protected List<Api> getApis(MethodAnalyser.Factory factory) {
         Objects.requireNonNull(factory, "factory not specified");
-        return this.sources.keySet().stream().filter(clazz -> DocumentHelper.isApiClass(clazz)
-                && (this.excludeClasses == null
-                || this.excludeClasses.stream().noneMatch(clazz.getName()::startsWith))).flatMap(clazz -> {
+        return this.classes.stream().filter(DocumentHelper::isApiClass).flatMap(clazz -> {
             try {
                 return Stream.of(clazz.getDeclaredMethods()).filter(DocumentHelper::isApiMethod)
-                        .map(method -> factory.build(method).parse());
+                        .map(method -> this.describe(factory.build(method).parse(), method));
             } catch (Throwable e) {
                 this.getLog().warn("Api loading failed: " + e.getMessage());
             }
@@ -363,33 +485,31 @@ public abstract class AbstractBuildMojo extends AbstractMojo {
     public final void execute() throws MojoExecutionException {
         try {
             this.initialize();
-            this.building(this.getApis(this.buildMethodAnalyserFactory()));
+            List<Api> apis = this.getApis(this.buildMethodAnalyserFactory());
+            if (this.enableSnapshot) {
+                this.getLog().info("Building snapshot: " + this.snapshot.getPath());
+                ApiSnapshot.of(apis).write(this.snapshot.toPath());
+            }
+            this.building(apis);
         } catch (Exception e) {
             throw new MojoExecutionException(e.getMessage(), e);
         } finally {
+            if (this.documentLoader != null) {
+                this.getLog().info(String.format("Document lookups: %d hits, %d misses, %d javadoc invocations",
+                        this.documentLoader.getHits(), this.documentLoader.getMisses(),
+                        this.documentLoader.getInvocations()));
+                this.documentLoader = null;
+            }
             ContextHelper.clear();
             DocumentHelper.removeDirectory(new File(this.dependencySourceDirectory));
-        }
-    }
-
-    /**
-     * Document doclet
-     */
-    public static final class Doclet {
-        /**
-         * Root document
-         */
-        private static RootDoc root;
-
-        /**
-         * Receive the root document
-         *
-         * @param root Root document
-         * @return true/false
-         */
-        public static boolean start(RootDoc root) {
-            Doclet.root = root;
-            return true;
+            if (this.classLoader != null) {
+                try {
+                    this.classLoader.close();
+                } catch (IOException e) {
+                    this.getLog().warn("Class loader closing failed: " + e.getMessage());
+                }
+                this.classLoader = null;
+            }
         }
     }
 }
@@ -0,0 +1,193 @@
+package com.arsframework.plugin.apidoc;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+import com.arsframework.apidoc.core.Api;
+import com.arsframework.apidoc.core.Parameter;
+import org.springframework.core.LocalVariableTableParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+
+/**
+ * Api describer used in fast mode, which fills the parameter names from the local variable table of class files when
+ * the classes are compiled without {@code -parameters}, and the api, parameter and field descriptions from the swagger
+ * annotations when no document is available
+ *
+ * @author Woody
+ */
+final class ApiDescriber {
+    /**
+     * Annotation type and (name attribute, description attribute) mappings of api methods
+     */
+    private static final Map<String, String[]> OPERATION_ANNOTATIONS = new HashMap<>();
+
+    /**
+     * Annotation type and description attribute mappings of method parameters and fields
+     */
+    private static final Map<String, String> PARAMETER_ANNOTATIONS = new HashMap<>();
+
+    static {
+        OPERATION_ANNOTATIONS.put("io.swagger.annotations.ApiOperation", new String[]{"value", "notes"});
+        OPERATION_ANNOTATIONS.put("io.swagger.v3.oas.annotations.Operation", new String[]{"summary", "description"});
+        PARAMETER_ANNOTATIONS.put("io.swagger.annotations.ApiParam", "value");
+        PARAMETER_ANNOTATIONS.put("io.swagger.annotations.ApiModelProperty", "value");
+        PARAMETER_ANNOTATIONS.put("io.swagger.v3.oas.annotations.Parameter", "description");
+        PARAMETER_ANNOTATIONS.put("io.swagger.v3.oas.annotations.media.Schema", "description");
+    }
+
+    /**
+     * Parameter name discoverer, which caches the local variable tables of the classes described in this build
+     */
+    private final ParameterNameDiscoverer discoverer = new LocalVariableTableParameterNameDiscoverer();
+
+    /**
+     * Get the string attribute of annotation
+     *
+     * @param annotation Annotation object
+     * @param attribute  Attribute name
+     * @return Attribute value or null if the attribute is absent or blank
+     */
+    private static String getAnnotationValue(Annotation annotation, String attribute) {
+        try {
+            Object value = annotation.annotationType().getMethod(attribute).invoke(annotation);
+            return value instanceof String && !((String) value).trim().isEmpty() ? (String) value : null;
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Get the description of method parameter or field from annotations
+     *
+     * @param element Method parameter or field
+     * @return Description or null if no description annotation is present
+     */
+    private static String getDescription(AnnotatedElement element) {
+        for (Annotation annotation : element.getAnnotations()) {
+            String attribute = PARAMETER_ANNOTATIONS.get(annotation.annotationType().getName());
+            String description = attribute == null ? null : getAnnotationValue(annotation, attribute);
+            if (description != null) {
+                return description;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the field of type or its super classes
+     *
+     * @param type Class type
+     * @param name Field name
+     * @return Field object or null if the field does not exist
+     */
+    private static Field getField(Class<?> type, String name) {
+        for (Class<?> clazz = type; clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+            try {
+                return clazz.getDeclaredField(name);
+            } catch (NoSuchFieldException ignored) {
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Describe the parameter and its fields
+     *
+     * @param parameter Parameter object
+     * @param element   Method parameter or field the parameter is built from, or null if unknown
+     */
+    private static void describe(Parameter parameter, AnnotatedElement element) {
+        if (parameter.getDescription() == null && element != null) {
+            String description = getDescription(element);
+            if (description != null) {
+                parameter.setDescription(description);
+            }
+        }
+        if (parameter.getFields() != null) {
+            Object original = parameter.getOriginal();
+            Class<?> type = original instanceof Class ? (Class<?>) original : null;
+            for (Parameter field : parameter.getFields()) {
+                describe(field, type == null ? null : getField(type, field.getName()));
+            }
+        }
+    }
+
+    /**
+     * Get the parameter names of method, from the class file parameters attribute first and then from the local
+     * variable table
+     *
+     * @param method Api method
+     * @return Parameter names or null if the names are not present in the class file
+     */
+    public String[] getParameterNames(Method method) {
+        Objects.requireNonNull(method, "method not specified");
+        java.lang.reflect.Parameter[] arguments = method.getParameters();
+        if (arguments.length == 0 || arguments[0].isNamePresent()) {
+            return Stream.of(arguments).map(java.lang.reflect.Parameter::getName).toArray(String[]::new);
+        }
+        return this.discoverer.getParameterNames(method);
+    }
+
+    /**
+     * Describe the api with parameter names and annotation values
+     *
+     * @param api    Api object
+     * @param method Api method
+     * @param names  Parameter names or null if the names are not present in the class file
+     * @return Api object
+     */
+    public Api describe(Api api, Method method, String[] names) {
+        Objects.requireNonNull(api, "api not specified");
+        Objects.requireNonNull(method, "method not specified");
+        for (Annotation annotation : method.getAnnotations()) {
+            String[] attributes = OPERATION_ANNOTATIONS.get(annotation.annotationType().getName());
+            if (attributes == null) {
+                continue;
+            }
+            String name = getAnnotationValue(annotation, attributes[0]);
+            if (name != null && (api.getName() == null || api.getName().equals(method.getName()))) {
+                api.setName(name);
+            }
+            String description = getAnnotationValue(annotation, attributes[1]);
+            if (description != null && api.getDescription() == null) {
+                api.setDescription(description);
+            }
+        }
+        if (api.getParameters() != null) {
+            // Parameters are named argN by reflection without -parameters, rename them with the discovered names
+            java.lang.reflect.Parameter[] arguments = method.getParameters();
+            Map<String, String> renames = new HashMap<>(arguments.length * 4 / 3 + 1);
+            Map<String, AnnotatedElement> elements = new HashMap<>(arguments.length * 4 / 3 + 1);
+            for (int i = 0; i < arguments.length; i++) {
+                String name = names == null ? arguments[i].getName() : names[i];
+                renames.put(arguments[i].getName(), name);
+                elements.put(name, arguments[i]);
+            }
+            for (Parameter parameter : api.getParameters()) {
+                String name = renames.get(parameter.getName());
+                if (name != null && !name.equals(parameter.getName())) {
+                    parameter.setName(name);
+                }
+                AnnotatedElement element = elements.get(parameter.getName());
+                for (int i = 0; element == null && i < arguments.length; i++) {
+                    // Fields of form beans are expanded into request parameters
+                    Class<?> type = arguments[i].getType();
+                    if (!type.isPrimitive() && !type.getName().startsWith("java.")) {
+                        element = getField(type, parameter.getName());
+                    }
+                }
+                describe(parameter, element);
+            }
+        }
+        if (api.getReturned() != null) {
+            describe(api.getReturned(), null);
+        }
+        return api;
+    }
+}
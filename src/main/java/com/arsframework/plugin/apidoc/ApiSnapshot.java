@@ -0,0 +1,319 @@
+package com.arsframework.plugin.apidoc;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+import com.arsframework.apidoc.core.Api;
+import com.arsframework.apidoc.core.Parameter;
+
+/**
+ * Compact binary snapshot of the api model, endpoints are indexed by api key and by request method and url so that
+ * two snapshots can be compared in linear time, apis sharing a key are always keyed by the key followed by their route
+ * so that the keys do not depend on the order of apis
+ *
+ * @author Woody
+ */
+final class ApiSnapshot {
+    /**
+     * Snapshot file magic number
+     */
+    private static final int MAGIC = 0x41504953;
+
+    /**
+     * Snapshot format version
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * Api key and endpoint mappings
+     */
+    private final Map<String, Endpoint> endpoints;
+
+    /**
+     * Route (request method and url) and endpoint mappings
+     */
+    private final Map<String, Endpoint> routes = new HashMap<>();
+
+    ApiSnapshot(Collection<Endpoint> endpoints) {
+        Objects.requireNonNull(endpoints, "endpoints not specified");
+        Map<String, Integer> counts = new HashMap<>(endpoints.size() * 4 / 3 + 1);
+        endpoints.forEach(endpoint -> counts.merge(endpoint.key, 1, Integer::sum));
+        Map<String, Endpoint> keyed = new LinkedHashMap<>(endpoints.size() * 4 / 3 + 1);
+        for (Endpoint endpoint : endpoints) {
+            if (counts.get(endpoint.key) > 1) {
+                List<String> methods = new ArrayList<>(endpoint.methods);
+                Collections.sort(methods);
+                endpoint = new Endpoint(endpoint.key + " " + route(String.join(",", methods), endpoint.url),
+                        endpoint.url, endpoint.methods, endpoint.parameters, endpoint.returned);
+            }
+            if (keyed.putIfAbsent(endpoint.key, endpoint) != null) {
+                throw new IllegalStateException("Duplicate api: " + endpoint.key);
+            }
+            for (String method : endpoint.methods) {
+                this.routes.put(route(method, endpoint.url), endpoint);
+            }
+        }
+        this.endpoints = Collections.unmodifiableMap(keyed);
+    }
+
+    /**
+     * Build the route of endpoint
+     *
+     * @param method Request method
+     * @param url    Request url
+     * @return Route string
+     */
+    private static String route(String method, String url) {
+        return method.toUpperCase(Locale.ENGLISH) + " " + url;
+    }
+
+    /**
+     * Flatten the parameter tree into dotted field paths
+     *
+     * @param fields    Field path and field mappings
+     * @param parent    Parent field path
+     * @param parameter Parameter object
+     */
+    private static void flatten(Map<String, Field> fields, String parent, Parameter parameter) {
+        String name = parent == null ? parameter.getName() : parent + "." + parameter.getName();
+        fields.put(name, new Field(parameter.getType().getName(), parameter.isMultiple(), parameter.isRequired()));
+        if (parameter.getFields() != null) {
+            parameter.getFields().forEach(field -> flatten(fields, name, field));
+        }
+    }
+
+    /**
+     * Build the snapshot of apis
+     *
+     * @param apis Api list
+     * @return Api snapshot
+     */
+    public static ApiSnapshot of(List<Api> apis) {
+        Objects.requireNonNull(apis, "apis not specified");
+        List<Endpoint> endpoints = new ArrayList<>(apis.size());
+        for (Api api : apis) {
+            List<String> methods = new ArrayList<>();
+            for (String method : api.getMethods()) {
+                methods.add(method.toLowerCase(Locale.ENGLISH));
+            }
+            Map<String, Field> parameters = new LinkedHashMap<>();
+            if (api.getParameters() != null) {
+                api.getParameters().forEach(parameter -> flatten(parameters, null, parameter));
+            }
+            Map<String, Field> returned = new LinkedHashMap<>();
+            if (api.getReturned() != null) {
+                flatten(returned, null, api.getReturned());
+            }
+            endpoints.add(new Endpoint(api.getKey(), api.getUrl(), methods, parameters, returned));
+        }
+        return new ApiSnapshot(endpoints);
+    }
+
+    /**
+     * Get the endpoints
+     *
+     * @return Endpoint collection
+     */
+    public Collection<Endpoint> getEndpoints() {
+        return this.endpoints.values();
+    }
+
+    /**
+     * Find the endpoint matching the given endpoint, the request method and url decide whether the endpoint still
+     * exists, and the api key only pairs the endpoints to be compared
+     *
+     * @param endpoint Endpoint of another snapshot
+     * @param method   Request method
+     * @return Matched endpoint or null if the route no longer exists
+     */
+    public Endpoint match(Endpoint endpoint, String method) {
+        Objects.requireNonNull(endpoint, "endpoint not specified");
+        Endpoint routed = this.routes.get(route(method, endpoint.url));
+        if (routed == null) {
+            return null;
+        }
+        Endpoint matched = this.endpoints.get(endpoint.key);
+        return matched != null && matched.methods.contains(method) ? matched : routed;
+    }
+
+    /**
+     * Write the fields
+     *
+     * @param output Data output
+     * @param fields Field path and field mappings
+     * @throws IOException IO exception
+     */
+    private static void write(DataOutputStream output, Map<String, Field> fields) throws IOException {
+        output.writeInt(fields.size());
+        for (Map.Entry<String, Field> entry : fields.entrySet()) {
+            Field field = entry.getValue();
+            output.writeUTF(entry.getKey());
+            output.writeUTF(field.type);
+            output.writeByte((field.multiple ? 1 : 0) | (field.required ? 2 : 0));
+        }
+    }
+
+    /**
+     * Read the fields
+     *
+     * @param input Data input
+     * @return Field path and field mappings
+     * @throws IOException IO exception
+     */
+    private static Map<String, Field> read(DataInputStream input) throws IOException {
+        int size = input.readInt();
+        Map<String, Field> fields = new LinkedHashMap<>(size * 4 / 3 + 1);
+        for (int i = 0; i < size; i++) {
+            String name = input.readUTF();
+            String type = input.readUTF();
+            int flags = input.readByte();
+            fields.put(name, new Field(type, (flags & 1) != 0, (flags & 2) != 0));
+        }
+        return fields;
+    }
+
+    /**
+     * Write the snapshot to file
+     *
+     * @param file Snapshot file
+     * @throws IOException IO exception
+     */
+    public void write(Path file) throws IOException {
+        Objects.requireNonNull(file, "file not specified");
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeInt(this.endpoints.size());
+            for (Endpoint endpoint : this.endpoints.values()) {
+                output.writeUTF(endpoint.key);
+                output.writeUTF(endpoint.url);
+                output.writeInt(endpoint.methods.size());
+                for (String method : endpoint.methods) {
+                    output.writeUTF(method);
+                }
+                write(output, endpoint.parameters);
+                write(output, endpoint.returned);
+            }
+        }
+    }
+
+    /**
+     * Read the snapshot from file
+     *
+     * @param file Snapshot file
+     * @return Api snapshot
+     * @throws IOException IO exception
+     */
+    public static ApiSnapshot read(Path file) throws IOException {
+        Objects.requireNonNull(file, "file not specified");
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (input.readInt() != MAGIC) {
+                throw new IOException("Invalid api snapshot: " + file);
+            }
+            int version = input.readInt();
+            if (version != VERSION) {
+                throw new IOException(String.format("Unsupported api snapshot version %d: %s", version, file));
+            }
+            int size = input.readInt();
+            List<Endpoint> endpoints = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                String key = input.readUTF();
+                String url = input.readUTF();
+                int count = input.readInt();
+                List<String> methods = new ArrayList<>(count);
+                for (int j = 0; j < count; j++) {
+                    methods.add(input.readUTF());
+                }
+                endpoints.add(new Endpoint(key, url, methods, read(input), read(input)));
+            }
+            return new ApiSnapshot(endpoints);
+        }
+    }
+
+    /**
+     * Api endpoint
+     */
+    static final class Endpoint {
+        /**
+         * Api key
+         */
+        final String key;
+
+        /**
+         * Request url
+         */
+        final String url;
+
+        /**
+         * Request methods
+         */
+        final List<String> methods;
+
+        /**
+         * Request parameter path and field mappings
+         */
+        final Map<String, Field> parameters;
+
+        /**
+         * Response field path and field mappings
+         */
+        final Map<String, Field> returned;
+
+        Endpoint(String key, String url, List<String> methods, Map<String, Field> parameters,
+                 Map<String, Field> returned) {
+            this.key = key;
+            this.url = url;
+            this.methods = Collections.unmodifiableList(methods);
+            this.parameters = Collections.unmodifiableMap(parameters);
+            this.returned = Collections.unmodifiableMap(returned);
+        }
+    }
+
+    /**
+     * Parameter field
+     */
+    static final class Field {
+        /**
+         * Field type name
+         */
+        final String type;
+
+        /**
+         * Whether the field is multiple
+         */
+        final boolean multiple;
+
+        /**
+         * Whether the field is required
+         */
+        final boolean required;
+
+        Field(String type, boolean multiple, boolean required) {
+            this.type = type;
+            this.multiple = multiple;
+            this.required = required;
+        }
+
+        @Override
+        public String toString() {
+            return this.multiple ? this.type + "[]" : this.type;
+        }
+    }
+}
@@ -16,21 +16,35 @@ package com.arsframework.plugin.apidoc;
  * limitations under the License.
  */
 
-import java.io.BufferedWriter;
-import java.io.File;
-import java.io.FileWriter;
-import java.io.Writer;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.TimeZone;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 import com.arsframework.apidoc.core.Api;
@@ -51,11 +65,22 @@ import org.springframework.util.CollectionUtils;
         requiresDependencyCollection = ResolutionScope.COMPILE, threadSafe = true)
 public class ApidocBuildMojo extends AbstractBuildMojo {
     /**
-     * Output file of api document
+     * Manifest file listing the group files written into the output directory
+     */
+    private static final String MANIFEST_FILE_NAME = ".apidoc-manifest";
+
+    /**
+     * Output directory of api document
      */
     @org.apache.maven.plugins.annotations.Parameter(defaultValue = "${project.basedir}/target/apidoc", required = true)
     private String output;
 
+    /**
+     * Number of threads rendering the group files
+     */
+    @org.apache.maven.plugins.annotations.Parameter(defaultValue = "4", required = true)
+    private int buildThreads;
+
     /**
      * 文件名特殊符号转义
      *
@@ -232,27 +257,134 @@ public class ApidocBuildMojo extends AbstractBuildMojo {
         return document.toString();
     }
 
+    /**
+     * Get the digest of content
+     *
+     * @param input Content input stream
+     * @return Content digest
+     * @throws IOException IO exception
+     */
+    private static byte[] digest(InputStream input) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        try (DigestInputStream stream = new DigestInputStream(input, digest)) {
+            byte[] buffer = new byte[8192];
+            while (stream.read(buffer) > 0) {
+                // Digest is updated while reading
+            }
+        }
+        return digest.digest();
+    }
+
+    /**
+     * Write the content to file atomically, the file is left untouched if the content is not changed
+     *
+     * @param file    Target file
+     * @param content File content
+     * @return true if the file is written, false if the content is not changed
+     * @throws IOException IO exception
+     */
+    protected boolean write(Path file, byte[] content) throws IOException {
+        Objects.requireNonNull(file, "file not specified");
+        Objects.requireNonNull(content, "content not specified");
+        if (Files.isRegularFile(file) && Files.size(file) == content.length && Arrays.equals(
+                digest(Files.newInputStream(file)), digest(new ByteArrayInputStream(content)))) {
+            return false;
+        }
+        Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temp, content);
+            try {
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return true;
+    }
+
+    /**
+     * Convert the group apis to document
+     *
+     * @param group Group name
+     * @param apis  Api list of group
+     * @return Group document string
+     */
+    protected String group2document(String group, List<Api> apis) {
+        StringBuilder document = new StringBuilder();
+        document.append("\n/**");
+        document.append("\n * @apiDefine Group ").append(group);
+        document.append("\n */\n");
+        for (Api api : apis) {
+            api.setGroup("Group");
+            document.append(this.api2document(api));
+        }
+        return document.toString();
+    }
+
     @Override
     protected void building(List<Api> apis) throws Exception {
-        if (apis == null || apis.isEmpty()) {
-            return;
-        }
+        Path path = Paths.get(this.output).toAbsolutePath().normalize();
+        Path manifest = path.resolve(MANIFEST_FILE_NAME);
+        Map<String, List<Api>> groups = apis == null ? new LinkedHashMap<>() : apis.stream()
+                .collect(Collectors.groupingBy(Api::getGroup, LinkedHashMap::new, Collectors.toList()));
+        Map<String, String> files = new LinkedHashMap<>();
+        groups.keySet().forEach(group -> files.put(this.escape(group) + ".apidoc", group));
 
-        File path = Files.createDirectories(Paths.get(this.output)).toFile();
-        Map<String, List<Api>> groups = apis.stream().collect(Collectors.groupingBy(Api::getGroup));
-        for (Map.Entry<String, List<Api>> entry : groups.entrySet()) {
-            File file = new File(path, this.escape(entry.getKey()) + ".apidoc");
-            this.getLog().info("Building apidoc: " + file.getPath());
-            try (Writer writer = new BufferedWriter(new FileWriter(file))) {
-                writer.write("\n/**");
-                writer.write("\n * @apiDefine Group " + entry.getKey());
-                writer.write("\n */\n");
+        // Render the group files, no file is generated if the project has no api
+        if (!files.isEmpty()) {
+            Files.createDirectories(path);
+            Configuration configuration = ContextHelper.getConfiguration();
+            ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(this.buildThreads,
+                    files.size())));
+            try {
+                List<Future<?>> futures = new ArrayList<>(files.size());
+                for (Map.Entry<String, String> entry : files.entrySet()) {
+                    Path file = path.resolve(entry.getKey());
+                    String group = entry.getValue();
+                    futures.add(executor.submit(() -> {
+                        ContextHelper.setConfiguration(configuration);
+                        String document = this.group2document(group, groups.get(group));
+                        if (this.write(file, document.getBytes(Charset.defaultCharset()))) {
+                            this.getLog().info("Building apidoc: " + file);
+                        } else {
+                            this.getLog().debug("Unchanged apidoc: " + file);
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    try {
+                        future.get();
+                    } catch (ExecutionException e) {
+                        throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+                    }
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+        }
 
-                for (Api api : entry.getValue()) {
-                    api.setGroup("Group");
-                    writer.write(this.api2document(api));
+        // Remove the group files written by the previous build which no longer exist in the model
+        if (Files.isRegularFile(manifest)) {
+            for (String name : Files.readAllLines(manifest, StandardCharsets.UTF_8)) {
+                Path file = path.resolve(name).normalize();
+                if (!name.isEmpty() && !files.containsKey(name) && path.equals(file.getParent())
+                        && Files.deleteIfExists(file)) {
+                    this.getLog().info("Removing apidoc: " + file);
                 }
             }
         }
+        if (files.isEmpty()) {
+            Files.deleteIfExists(manifest);
+        } else {
+            this.write(manifest, String.join("\n", files.keySet()).getBytes(StandardCharsets.UTF_8));
+        }
     }
 }
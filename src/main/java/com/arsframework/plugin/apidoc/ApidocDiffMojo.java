@@ -0,0 +1,134 @@
+package com.arsframework.plugin.apidoc;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+/**
+ * Apidoc diff mojo, which compares two api snapshots and reports the breaking changes
+ *
+ * @author Woody
+ */
+@Mojo(name = "diff", requiresProject = false, threadSafe = true)
+public class ApidocDiffMojo extends AbstractMojo {
+    /**
+     * Baseline snapshot file
+     */
+    @Parameter(property = "apidoc.baseline", required = true)
+    private File baseline;
+
+    /**
+     * Current snapshot file, which defaults to the snapshot file written by the build goals
+     */
+    @Parameter(property = "apidoc.current", defaultValue = "${project.build.directory}/apidoc.snapshot",
+            required = true)
+    private File current;
+
+    /**
+     * Whether the build fails when breaking changes are found
+     */
+    @Parameter(property = "apidoc.failOnBreaking", defaultValue = "true", required = true)
+    private boolean failOnBreaking;
+
+    /**
+     * Compare the request parameters
+     *
+     * @param changes  Breaking changes
+     * @param route    Endpoint route
+     * @param previous Previous parameters
+     * @param present  Present parameters
+     */
+    private void compareParameters(List<String> changes, String route, Map<String, ApiSnapshot.Field> previous,
+                                   Map<String, ApiSnapshot.Field> present) {
+        for (Map.Entry<String, ApiSnapshot.Field> entry : present.entrySet()) {
+            String name = entry.getKey();
+            ApiSnapshot.Field field = entry.getValue();
+            ApiSnapshot.Field origin = previous.get(name);
+            if (origin == null) {
+                if (field.required) {
+                    changes.add(String.format("%s: new required parameter '%s'", route, name));
+                }
+                continue;
+            }
+            if (!origin.toString().equals(field.toString())) {
+                changes.add(String.format("%s: parameter '%s' type changed from %s to %s", route, name, origin,
+                        field));
+            }
+            if (!origin.required && field.required) {
+                changes.add(String.format("%s: parameter '%s' became required", route, name));
+            }
+        }
+    }
+
+    /**
+     * Compare the response fields
+     *
+     * @param changes  Breaking changes
+     * @param route    Endpoint route
+     * @param previous Previous response fields
+     * @param present  Present response fields
+     */
+    private void compareReturned(List<String> changes, String route, Map<String, ApiSnapshot.Field> previous,
+                                 Map<String, ApiSnapshot.Field> present) {
+        for (Map.Entry<String, ApiSnapshot.Field> entry : previous.entrySet()) {
+            ApiSnapshot.Field field = present.get(entry.getKey());
+            if (field != null && !field.toString().equals(entry.getValue().toString())) {
+                changes.add(String.format("%s: response field '%s' type changed from %s to %s", route,
+                        entry.getKey(), entry.getValue(), field));
+            }
+        }
+    }
+
+    /**
+     * Get the breaking changes between two snapshots
+     *
+     * @param previous Previous snapshot
+     * @param present  Present snapshot
+     * @return Breaking changes
+     */
+    List<String> diff(ApiSnapshot previous, ApiSnapshot present) {
+        List<String> changes = new ArrayList<>();
+        for (ApiSnapshot.Endpoint endpoint : previous.getEndpoints()) {
+            for (String method : endpoint.methods) {
+                String route = method.toUpperCase(Locale.ENGLISH) + " " + endpoint.url;
+                ApiSnapshot.Endpoint matched = present.match(endpoint, method);
+                if (matched == null) {
+                    changes.add(String.format("%s: endpoint removed", route));
+                    continue;
+                }
+                this.compareParameters(changes, route, endpoint.parameters, matched.parameters);
+                this.compareReturned(changes, route, endpoint.returned, matched.returned);
+            }
+        }
+        return changes;
+    }
+
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        List<String> changes;
+        try {
+            changes = this.diff(ApiSnapshot.read(this.baseline.toPath()), ApiSnapshot.read(this.current.toPath()));
+        } catch (IOException e) {
+            throw new MojoExecutionException("Api snapshot loading failed: " + e.getMessage(), e);
+        }
+        if (changes.isEmpty()) {
+            this.getLog().info("No breaking api changes found");
+            return;
+        }
+        changes.forEach(change -> this.getLog().warn(change));
+        String message = String.format("%d breaking api change(s) found", changes.size());
+        if (this.failOnBreaking) {
+            throw new MojoFailureException(message);
+        }
+        this.getLog().warn(message);
+    }
+}
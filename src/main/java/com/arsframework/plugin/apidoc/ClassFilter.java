@@ -0,0 +1,286 @@
+package com.arsframework.plugin.apidoc;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Class include and exclude filter
+ * <p>
+ * Name rules are compiled into prefix tries and match the beginning of the qualified class name, {@code *} matches
+ * any characters within a package segment and {@code **} matches any characters across segments. A rule ending with a
+ * single {@code *} is anchored at the end of the segment, so {@code com.example.*} matches the classes of
+ * {@code com.example} only, while {@code com.example.} and {@code com.example.**} match its sub packages as well.
+ * Rules starting with {@code @} match the qualified name of an annotation present on the class.
+ *
+ * @author Woody
+ */
+final class ClassFilter {
+    /**
+     * Annotation rule prefix
+     */
+    private static final String ANNOTATION_RULE_PREFIX = "@";
+
+    /**
+     * Include name rules
+     */
+    private final Node includes = new Node(Node.LITERAL);
+
+    /**
+     * Exclude name rules
+     */
+    private final Node excludes = new Node(Node.LITERAL);
+
+    /**
+     * Include annotation names
+     */
+    private final Set<String> includeAnnotations = new HashSet<>();
+
+    /**
+     * Exclude annotation names
+     */
+    private final Set<String> excludeAnnotations = new HashSet<>();
+
+    /**
+     * Whether any include name rule is defined
+     */
+    private final boolean including;
+
+    ClassFilter(Collection<String> includes, Collection<String> excludes) {
+        this.including = this.compile(includes, this.includes, this.includeAnnotations);
+        this.compile(excludes, this.excludes, this.excludeAnnotations);
+    }
+
+    /**
+     * Compile the rules
+     *
+     * @param rules       Rule list
+     * @param root        Root node of name rules
+     * @param annotations Annotation names
+     * @return Whether any name rule is compiled
+     */
+    private boolean compile(Collection<String> rules, Node root, Set<String> annotations) {
+        boolean compiled = false;
+        if (rules == null) {
+            return false;
+        }
+        for (String rule : rules) {
+            if (rule == null || (rule = rule.trim()).isEmpty()) {
+                continue;
+            }
+            if (rule.startsWith(ANNOTATION_RULE_PREFIX)) {
+                annotations.add(rule.substring(ANNOTATION_RULE_PREFIX.length()));
+                continue;
+            }
+            Node node = root;
+            boolean anchored = false;
+            for (int i = 0, length = rule.length(); i < length; i++) {
+                char c = rule.charAt(i);
+                if (c == '*' && i + 1 < length && rule.charAt(i + 1) == '*') {
+                    node = node.any == null ? (node.any = new Node(Node.ANY)) : node.any;
+                    anchored = false;
+                    i++;
+                } else if (c == '*') {
+                    node = node.segment == null ? (node.segment = new Node(Node.SEGMENT)) : node.segment;
+                    anchored = true;
+                } else {
+                    node = node.children.computeIfAbsent(c, k -> new Node(Node.LITERAL));
+                    anchored = false;
+                }
+            }
+            if (anchored) {
+                node.anchored = true;
+            } else {
+                node.terminal = true;
+            }
+            compiled = true;
+        }
+        return compiled;
+    }
+
+    /**
+     * Add the node and the wildcard nodes reachable without consuming characters
+     *
+     * @param states Current states
+     * @param node   Trie node
+     */
+    private static void close(List<Node> states, Node node) {
+        if (node == null || states.contains(node)) {
+            return;
+        }
+        states.add(node);
+        close(states, node.segment);
+        close(states, node.any);
+    }
+
+    /**
+     * Walk the name through the trie
+     *
+     * @param root    Root node
+     * @param name    Qualified name, or package name followed by a dot
+     * @param partial Whether the name is a package prefix of the class names to be matched
+     * @return true if a rule matches a prefix of the name, false if no rule matches, or null if the name is a prefix
+     * of some rule which has not been matched yet
+     */
+    private static Boolean walk(Node root, String name, boolean partial) {
+        List<Node> states = new ArrayList<>();
+        close(states, root);
+        for (int i = 0, length = name.length(); i < length && !states.isEmpty(); i++) {
+            char c = name.charAt(i);
+            List<Node> nexts = new ArrayList<>(states.size());
+            for (Node state : states) {
+                if (state.terminal) {
+                    return true;
+                }
+                if ((state.type == Node.SEGMENT && c != '.') || state.type == Node.ANY) {
+                    close(nexts, state);
+                }
+                close(nexts, state.children.get(c));
+            }
+            states = nexts;
+        }
+        for (Node state : states) {
+            if (state.terminal || (state.anchored && !partial)) {
+                return true;
+            }
+        }
+        return states.isEmpty() ? false : null;
+    }
+
+    /**
+     * Check whether the package and all its sub packages are excluded
+     *
+     * @param pkg Package name
+     * @return true/false
+     */
+    public boolean isExcludedPackage(String pkg) {
+        Objects.requireNonNull(pkg, "pkg not specified");
+        return !pkg.isEmpty() && walk(this.excludes, pkg + ".", true) == Boolean.TRUE;
+    }
+
+    /**
+     * Check whether the package or its sub packages may contain accepted classes
+     *
+     * @param pkg Package name
+     * @return true/false
+     */
+    public boolean isAcceptablePackage(String pkg) {
+        Objects.requireNonNull(pkg, "pkg not specified");
+        if (this.isExcludedPackage(pkg)) {
+            return false;
+        }
+        return !this.including || !this.includeAnnotations.isEmpty() || pkg.isEmpty()
+                || walk(this.includes, pkg + ".", true) != Boolean.FALSE;
+    }
+
+    /**
+     * Check whether the class name is excluded by the name rules
+     *
+     * @param name Qualified class name
+     * @return true/false
+     */
+    public boolean isExcluded(String name) {
+        Objects.requireNonNull(name, "name not specified");
+        return walk(this.excludes, name, false) == Boolean.TRUE;
+    }
+
+    /**
+     * Check whether the class name is accepted by the name rules
+     *
+     * @param name Qualified class name
+     * @return true/false
+     */
+    public boolean accept(String name) {
+        if (this.isExcluded(name)) {
+            return false;
+        }
+        return !this.including || !this.includeAnnotations.isEmpty()
+                || walk(this.includes, name, false) == Boolean.TRUE;
+    }
+
+    /**
+     * Check whether the class is accepted by the name and annotation rules
+     *
+     * @param clazz Class object
+     * @return true/false
+     */
+    public boolean accept(Class<?> clazz) {
+        Objects.requireNonNull(clazz, "clazz not specified");
+        String name = clazz.getName();
+        if (this.isExcluded(name)) {
+            return false;
+        }
+        boolean included = !this.including && this.includeAnnotations.isEmpty()
+                || this.including && walk(this.includes, name, false) == Boolean.TRUE;
+        if (!this.includeAnnotations.isEmpty() || !this.excludeAnnotations.isEmpty()) {
+            for (Annotation annotation : clazz.getAnnotations()) {
+                String type = annotation.annotationType().getName();
+                if (this.excludeAnnotations.contains(type)) {
+                    return false;
+                }
+                included = included || this.includeAnnotations.contains(type);
+            }
+        }
+        return included;
+    }
+
+    /**
+     * Trie node
+     */
+    private static final class Node {
+        /**
+         * Literal node type
+         */
+        private static final int LITERAL = 0;
+
+        /**
+         * Segment wildcard node type
+         */
+        private static final int SEGMENT = 1;
+
+        /**
+         * Any wildcard node type
+         */
+        private static final int ANY = 2;
+
+        /**
+         * Node type
+         */
+        private final int type;
+
+        /**
+         * Character and child node mappings
+         */
+        private final Map<Character, Node> children = new HashMap<>(4);
+
+        /**
+         * Segment wildcard child node
+         */
+        private Node segment;
+
+        /**
+         * Any wildcard child node
+         */
+        private Node any;
+
+        /**
+         * Whether a rule ends at this node
+         */
+        private boolean terminal;
+
+        /**
+         * Whether a rule ending with a segment wildcard ends at this node, which matches at the end of name only
+         */
+        private boolean anchored;
+
+        private Node(int type) {
+            this.type = type;
+        }
+    }
+}
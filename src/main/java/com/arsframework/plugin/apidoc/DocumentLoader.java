@@ -0,0 +1,236 @@
+package com.arsframework.plugin.apidoc;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import com.sun.javadoc.ClassDoc;
+import com.sun.javadoc.RootDoc;
+import com.sun.tools.javadoc.Main;
+
+/**
+ * Class document loader, which runs javadoc on demand and keeps the class document snapshots in a bounded cache,
+ * classes without document are remembered as well and concurrent requests for the same source share one javadoc run
+ *
+ * @author Woody
+ */
+final class DocumentLoader {
+    /**
+     * Class loader
+     */
+    private final IndexedClassLoader classLoader;
+
+    /**
+     * Source path of javadoc
+     */
+    private final String sourcepath;
+
+    /**
+     * Class source file provider
+     */
+    private final Function<Class<?>, String> sources;
+
+    /**
+     * Class name and class document snapshot mappings (least recently used entries are evicted first)
+     */
+    private final Map<String, ClassDoc> documents;
+
+    /**
+     * Class names without document (least recently used entries are evicted first)
+     */
+    private final Set<String> absences;
+
+    /**
+     * Source file and running javadoc task mappings
+     */
+    private final Map<String, FutureTask<Void>> tasks = new ConcurrentHashMap<>();
+
+    /**
+     * Number of lookups answered from cache
+     */
+    private final AtomicLong hits = new AtomicLong();
+
+    /**
+     * Number of lookups not answered from cache
+     */
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Number of javadoc invocations
+     */
+    private final AtomicLong invocations = new AtomicLong();
+
+    DocumentLoader(IndexedClassLoader classLoader, String sourcepath, Function<Class<?>, String> sources,
+                   int capacity) {
+        Objects.requireNonNull(classLoader, "classLoader not specified");
+        Objects.requireNonNull(sourcepath, "sourcepath not specified");
+        Objects.requireNonNull(sources, "sources not specified");
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Invalid document cache capacity: " + capacity);
+        }
+        this.classLoader = classLoader;
+        this.sourcepath = sourcepath;
+        this.sources = sources;
+        this.documents = Collections.synchronizedMap(buildCache(capacity));
+        this.absences = Collections.synchronizedSet(Collections.newSetFromMap(buildCache(capacity)));
+    }
+
+    /**
+     * Build the least recently used cache
+     *
+     * @param capacity Cache capacity
+     * @param <V>      Value type
+     * @return Cache map
+     */
+    private static <V> Map<String, V> buildCache(int capacity) {
+        return new LinkedHashMap<String, V>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+                return this.size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Run javadoc for the source file and cache the class document snapshots
+     *
+     * @param source Source file
+     */
+    private void document(String source) {
+        this.invocations.incrementAndGet();
+        RootDoc root = Doclet.execute(this.classLoader, this.classLoader.getClasspath(), this.sourcepath, source);
+        if (root != null) {
+            for (ClassDoc doc : root.classes()) {
+                this.documents.put(doc.toString(), DocumentSnapshot.of(doc));
+            }
+        }
+    }
+
+    /**
+     * Get the number of lookups answered from cache, including the classes known to have no document
+     *
+     * @return Hit count
+     */
+    public long getHits() {
+        return this.hits.get();
+    }
+
+    /**
+     * Get the number of lookups not answered from cache
+     *
+     * @return Miss count
+     */
+    public long getMisses() {
+        return this.misses.get();
+    }
+
+    /**
+     * Get the number of javadoc invocations
+     *
+     * @return Invocation count
+     */
+    public long getInvocations() {
+        return this.invocations.get();
+    }
+
+    /**
+     * Load the class document
+     *
+     * @param clazz Class object
+     * @return Class document snapshot
+     */
+    public ClassDoc load(Class<?> clazz) {
+        Objects.requireNonNull(clazz, "clazz not specified");
+        String name = clazz.getName().replace("$", ".");
+        ClassDoc document = this.documents.get(name);
+        if (document != null || this.absences.contains(name)) {
+            this.hits.incrementAndGet();
+            return document;
+        }
+        this.misses.incrementAndGet();
+        String source = this.sources.apply(clazz);
+        if (source == null && (clazz = clazz.getDeclaringClass()) != null) {
+            source = this.sources.apply(clazz);
+        }
+        if (source != null) {
+            String file = source;
+            FutureTask<Void> task = new FutureTask<>(() -> this.document(file), null);
+            FutureTask<Void> running = this.tasks.putIfAbsent(file, task);
+            try {
+                if (running == null) {
+                    // Another thread may have finished the same source between the cache lookup and registration
+                    if (this.documents.get(name) == null && !this.absences.contains(name)) {
+                        task.run();
+                        task.get();
+                    }
+                } else {
+                    running.get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                throw cause instanceof RuntimeException ? (RuntimeException) cause : new IllegalStateException(cause);
+            } finally {
+                if (running == null) {
+                    this.tasks.remove(file, task);
+                }
+            }
+            document = this.documents.get(name);
+        }
+        if (document == null) {
+            this.absences.add(name);
+        }
+        return document;
+    }
+
+    /**
+     * Document doclet
+     */
+    public static final class Doclet {
+        /**
+         * Root document
+         */
+        private static RootDoc root;
+
+        /**
+         * Receive the root document
+         *
+         * @param root Root document
+         * @return true/false
+         */
+        public static boolean start(RootDoc root) {
+            Doclet.root = root;
+            return true;
+        }
+
+        /**
+         * Execute javadoc and take the root document, the static reference is cleared immediately so that the javadoc
+         * object graph is released as soon as the caller has finished copying it
+         *
+         * @param classLoader Class loader
+         * @param classpath   Class path
+         * @param sourcepath  Source path
+         * @param source      Source file
+         * @return Root document
+         */
+        static synchronized RootDoc execute(ClassLoader classLoader, String classpath, String sourcepath,
+                                    String source) {
+            try {
+                Main.execute(classLoader, "-doclet", Doclet.class.getName(), "-quiet", "-encoding", "utf-8",
+                        "-sourcepath", sourcepath, "-classpath", classpath, source);
+                return Doclet.root;
+            } finally {
+                Doclet.root = null;
+            }
+        }
+    }
+}
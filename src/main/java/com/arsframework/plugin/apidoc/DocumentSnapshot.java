@@ -0,0 +1,1267 @@
+package com.arsframework.plugin.apidoc;
+
+import java.io.File;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Objects;
+
+import com.sun.javadoc.AnnotatedType;
+import com.sun.javadoc.AnnotationDesc;
+import com.sun.javadoc.AnnotationTypeDoc;
+import com.sun.javadoc.ClassDoc;
+import com.sun.javadoc.ConstructorDoc;
+import com.sun.javadoc.Doc;
+import com.sun.javadoc.FieldDoc;
+import com.sun.javadoc.MethodDoc;
+import com.sun.javadoc.PackageDoc;
+import com.sun.javadoc.ParamTag;
+import com.sun.javadoc.Parameter;
+import com.sun.javadoc.ParameterizedType;
+import com.sun.javadoc.ProgramElementDoc;
+import com.sun.javadoc.SeeTag;
+import com.sun.javadoc.SerialFieldTag;
+import com.sun.javadoc.SourcePosition;
+import com.sun.javadoc.Tag;
+import com.sun.javadoc.ThrowsTag;
+import com.sun.javadoc.Type;
+import com.sun.javadoc.TypeVariable;
+import com.sun.javadoc.WildcardType;
+
+/**
+ * Immutable document snapshot, which copies the comments, tags, fields, methods, parameters and superclass chain of a
+ * class document into small records, so that the javac symbol table and syntax tree can be released as soon as the
+ * javadoc run is finished
+ * <p>
+ * Every snapshot is self-contained and never references the snapshots of other cached classes. Members which are not
+ * captured return empty or null values like the documents of binary classes do.
+ *
+ * @author Woody
+ */
+abstract class DocumentSnapshot implements ProgramElementDoc {
+    /**
+     * Empty parameter tag array
+     */
+    private static final ParamTag[] EMPTY_PARAM_TAGS = new ParamTag[0];
+
+    /**
+     * Empty class document array
+     */
+    private static final ClassDoc[] EMPTY_CLASSES = new ClassDoc[0];
+
+    /**
+     * Empty field document array
+     */
+    private static final FieldDoc[] EMPTY_FIELDS = new FieldDoc[0];
+
+    /**
+     * Empty method document array
+     */
+    private static final MethodDoc[] EMPTY_METHODS = new MethodDoc[0];
+
+    /**
+     * Empty constructor document array
+     */
+    private static final ConstructorDoc[] EMPTY_CONSTRUCTORS = new ConstructorDoc[0];
+
+    /**
+     * Empty annotation array
+     */
+    private static final AnnotationDesc[] EMPTY_ANNOTATIONS = new AnnotationDesc[0];
+
+    /**
+     * Empty type variable array
+     */
+    private static final TypeVariable[] EMPTY_TYPE_VARIABLES = new TypeVariable[0];
+
+    /**
+     * Document name
+     */
+    private final String name;
+
+    /**
+     * Qualified name
+     */
+    private final String qualifiedName;
+
+    /**
+     * Comment text
+     */
+    private final String commentText;
+
+    /**
+     * Raw comment text
+     */
+    private final String rawCommentText;
+
+    /**
+     * Modifier flags
+     */
+    private final int modifierSpecifier;
+
+    /**
+     * Modifier string
+     */
+    private final String modifiers;
+
+    /**
+     * Whether the document is included in the javadoc run
+     */
+    private final boolean included;
+
+    /**
+     * Containing class snapshot
+     */
+    private final ClassDoc containingClass;
+
+    /**
+     * Block tags
+     */
+    private final Tag[] tags;
+
+    /**
+     * Inline tags of comment
+     */
+    private final Tag[] inlineTags;
+
+    /**
+     * Inline tags of the first sentence of comment
+     */
+    private final Tag[] firstSentenceTags;
+
+    private DocumentSnapshot(ProgramElementDoc doc, ClassDoc containingClass) {
+        this.name = doc.name();
+        this.qualifiedName = doc.qualifiedName();
+        this.commentText = doc.commentText();
+        this.rawCommentText = doc.getRawCommentText();
+        this.modifierSpecifier = doc.modifierSpecifier();
+        this.modifiers = doc.modifiers();
+        this.included = doc.isIncluded();
+        this.containingClass = containingClass;
+        this.tags = TagSnapshot.of(this, doc.tags());
+        this.inlineTags = TagSnapshot.inline(this, doc.inlineTags());
+        this.firstSentenceTags = TagSnapshot.inline(this, doc.firstSentenceTags());
+    }
+
+    /**
+     * Snapshot the class document
+     *
+     * @param doc Class document
+     * @return Class document snapshot
+     */
+    public static ClassDoc of(ClassDoc doc) {
+        Objects.requireNonNull(doc, "doc not specified");
+        return new ClassSnapshot(doc, true);
+    }
+
+    /**
+     * Check whether the class document is parsed from a source file, the members of binary classes have no comment
+     *
+     * @param doc Class document
+     * @return true/false
+     */
+    private static boolean isSourced(ClassDoc doc) {
+        SourcePosition position = doc.position();
+        File file = position == null ? null : position.file();
+        return doc.isIncluded() || (file != null && file.isFile());
+    }
+
+    @Override
+    public String name() {
+        return this.name;
+    }
+
+    @Override
+    public String qualifiedName() {
+        return this.qualifiedName;
+    }
+
+    @Override
+    public String commentText() {
+        return this.commentText;
+    }
+
+    @Override
+    public String getRawCommentText() {
+        return this.rawCommentText;
+    }
+
+    @Override
+    public void setRawCommentText(String rawDocumentation) {
+    }
+
+    @Override
+    public Tag[] tags() {
+        return this.tags.clone();
+    }
+
+    @Override
+    public Tag[] tags(String tagname) {
+        Objects.requireNonNull(tagname, "tagname not specified");
+        String name = tagname.startsWith("@") ? tagname : "@" + tagname;
+        return Arrays.stream(this.tags).filter(tag -> tag.name().equals(name)).toArray(Tag[]::new);
+    }
+
+    @Override
+    public SeeTag[] seeTags() {
+        return new SeeTag[0];
+    }
+
+    @Override
+    public Tag[] inlineTags() {
+        return this.inlineTags.clone();
+    }
+
+    @Override
+    public Tag[] firstSentenceTags() {
+        return this.firstSentenceTags.clone();
+    }
+
+    @Override
+    public int compareTo(Object o) {
+        return this.name.compareTo(((Doc) o).name());
+    }
+
+    @Override
+    public boolean isField() {
+        return false;
+    }
+
+    @Override
+    public boolean isEnumConstant() {
+        return false;
+    }
+
+    @Override
+    public boolean isConstructor() {
+        return false;
+    }
+
+    @Override
+    public boolean isMethod() {
+        return false;
+    }
+
+    @Override
+    public boolean isAnnotationTypeElement() {
+        return false;
+    }
+
+    @Override
+    public boolean isInterface() {
+        return false;
+    }
+
+    @Override
+    public boolean isException() {
+        return false;
+    }
+
+    @Override
+    public boolean isError() {
+        return false;
+    }
+
+    @Override
+    public boolean isEnum() {
+        return false;
+    }
+
+    @Override
+    public boolean isAnnotationType() {
+        return false;
+    }
+
+    @Override
+    public boolean isOrdinaryClass() {
+        return false;
+    }
+
+    @Override
+    public boolean isClass() {
+        return false;
+    }
+
+    @Override
+    public boolean isIncluded() {
+        return this.included;
+    }
+
+    @Override
+    public SourcePosition position() {
+        return null;
+    }
+
+    @Override
+    public ClassDoc containingClass() {
+        return this.containingClass;
+    }
+
+    @Override
+    public PackageDoc containingPackage() {
+        return null;
+    }
+
+    @Override
+    public int modifierSpecifier() {
+        return this.modifierSpecifier;
+    }
+
+    @Override
+    public String modifiers() {
+        return this.modifiers;
+    }
+
+    @Override
+    public AnnotationDesc[] annotations() {
+        return EMPTY_ANNOTATIONS;
+    }
+
+    @Override
+    public boolean isPublic() {
+        return Modifier.isPublic(this.modifierSpecifier);
+    }
+
+    @Override
+    public boolean isProtected() {
+        return Modifier.isProtected(this.modifierSpecifier);
+    }
+
+    @Override
+    public boolean isPrivate() {
+        return Modifier.isPrivate(this.modifierSpecifier);
+    }
+
+    @Override
+    public boolean isPackagePrivate() {
+        return !this.isPublic() && !this.isProtected() && !this.isPrivate();
+    }
+
+    @Override
+    public boolean isStatic() {
+        return Modifier.isStatic(this.modifierSpecifier);
+    }
+
+    @Override
+    public boolean isFinal() {
+        return Modifier.isFinal(this.modifierSpecifier);
+    }
+
+    @Override
+    public String toString() {
+        return this.qualifiedName;
+    }
+
+    /**
+     * Class document snapshot
+     */
+    static final class ClassSnapshot extends DocumentSnapshot implements ClassDoc {
+        /**
+         * Simple type name
+         */
+        private final String simpleTypeName;
+
+        /**
+         * Whether the class is an interface
+         */
+        private final boolean isInterface;
+
+        /**
+         * Whether the class is an enum
+         */
+        private final boolean isEnum;
+
+        /**
+         * Whether the class is an annotation type
+         */
+        private final boolean isAnnotationType;
+
+        /**
+         * Whether the class is an exception
+         */
+        private final boolean isException;
+
+        /**
+         * Whether the class is an error
+         */
+        private final boolean isError;
+
+        /**
+         * Whether the class is serializable
+         */
+        private final boolean serializable;
+
+        /**
+         * Superclass snapshot
+         */
+        private final ClassDoc superclass;
+
+        /**
+         * Interface snapshots, which carry names only
+         */
+        private final ClassDoc[] interfaces;
+
+        /**
+         * Type parameter tags
+         */
+        private final ParamTag[] typeParamTags;
+
+        /**
+         * Field snapshots
+         */
+        private final FieldDoc[] fields;
+
+        /**
+         * Enum constant snapshots
+         */
+        private final FieldDoc[] enumConstants;
+
+        /**
+         * Method snapshots
+         */
+        private final MethodDoc[] methods;
+
+        /**
+         * @param doc     Class document
+         * @param members Whether to capture the members and superclass chain
+         */
+        private ClassSnapshot(ClassDoc doc, boolean members) {
+            super(doc, null);
+            this.simpleTypeName = doc.simpleTypeName();
+            this.isInterface = doc.isInterface();
+            this.isEnum = doc.isEnum();
+            this.isAnnotationType = doc.isAnnotationType();
+            this.isException = doc.isException();
+            this.isError = doc.isError();
+            this.serializable = doc.isSerializable();
+            ClassDoc superclass = members ? doc.superclass() : null;
+            this.superclass = superclass == null ? null : new ClassSnapshot(superclass, isSourced(superclass));
+            this.interfaces = members ? Arrays.stream(doc.interfaces()).map(type -> new ClassSnapshot(type, false))
+                    .toArray(ClassDoc[]::new) : EMPTY_CLASSES;
+            this.typeParamTags = members ? TagSnapshot.of(this, doc.typeParamTags()) : EMPTY_PARAM_TAGS;
+            this.fields = members ? Arrays.stream(doc.fields(false)).map(field -> new FieldSnapshot(field, this))
+                    .toArray(FieldDoc[]::new) : EMPTY_FIELDS;
+            this.enumConstants = members ? Arrays.stream(doc.enumConstants())
+                    .map(field -> new FieldSnapshot(field, this)).toArray(FieldDoc[]::new) : EMPTY_FIELDS;
+            this.methods = members ? Arrays.stream(doc.methods(false)).map(method -> new MethodSnapshot(method, this))
+                    .toArray(MethodDoc[]::new) : EMPTY_METHODS;
+        }
+
+        @Override
+        public boolean isInterface() {
+            return this.isInterface;
+        }
+
+        @Override
+        public boolean isEnum() {
+            return this.isEnum;
+        }
+
+        @Override
+        public boolean isAnnotationType() {
+            return this.isAnnotationType;
+        }
+
+        @Override
+        public boolean isException() {
+            return this.isException;
+        }
+
+        @Override
+        public boolean isError() {
+            return this.isError;
+        }
+
+        @Override
+        public boolean isOrdinaryClass() {
+            return !this.isInterface && !this.isEnum && !this.isAnnotationType && !this.isException
+                    && !this.isError;
+        }
+
+        @Override
+        public boolean isClass() {
+            return !this.isInterface && !this.isAnnotationType;
+        }
+
+        @Override
+        public boolean isAbstract() {
+            return Modifier.isAbstract(this.modifierSpecifier());
+        }
+
+        @Override
+        public boolean isSerializable() {
+            return this.serializable;
+        }
+
+        @Override
+        public boolean isExternalizable() {
+            return false;
+        }
+
+        @Override
+        public MethodDoc[] serializationMethods() {
+            return EMPTY_METHODS;
+        }
+
+        @Override
+        public FieldDoc[] serializableFields() {
+            return EMPTY_FIELDS;
+        }
+
+        @Override
+        public boolean definesSerializableFields() {
+            return false;
+        }
+
+        @Override
+        public ClassDoc superclass() {
+            return this.superclass;
+        }
+
+        @Override
+        public Type superclassType() {
+            return this.superclass;
+        }
+
+        @Override
+        public boolean subclassOf(ClassDoc cd) {
+            for (ClassDoc type = this; type != null; type = type.superclass()) {
+                if (type.qualifiedName().equals(cd.qualifiedName())) {
+                    return true;
+                }
+            }
+            return Arrays.stream(this.interfaces).anyMatch(type -> type.qualifiedName().equals(cd.qualifiedName()));
+        }
+
+        @Override
+        public ClassDoc[] interfaces() {
+            return this.interfaces.clone();
+        }
+
+        @Override
+        public Type[] interfaceTypes() {
+            return this.interfaces.clone();
+        }
+
+        @Override
+        public TypeVariable[] typeParameters() {
+            return EMPTY_TYPE_VARIABLES;
+        }
+
+        @Override
+        public ParamTag[] typeParamTags() {
+            return this.typeParamTags.clone();
+        }
+
+        @Override
+        public FieldDoc[] fields() {
+            return this.fields(true);
+        }
+
+        @Override
+        public FieldDoc[] fields(boolean filter) {
+            return filter ? Arrays.stream(this.fields).filter(Doc::isIncluded).toArray(FieldDoc[]::new)
+                    : this.fields.clone();
+        }
+
+        @Override
+        public FieldDoc[] enumConstants() {
+            return this.enumConstants.clone();
+        }
+
+        @Override
+        public MethodDoc[] methods() {
+            return this.methods(true);
+        }
+
+        @Override
+        public MethodDoc[] methods(boolean filter) {
+            return filter ? Arrays.stream(this.methods).filter(Doc::isIncluded).toArray(MethodDoc[]::new)
+                    : this.methods.clone();
+        }
+
+        @Override
+        public ConstructorDoc[] constructors() {
+            return EMPTY_CONSTRUCTORS;
+        }
+
+        @Override
+        public ConstructorDoc[] constructors(boolean filter) {
+            return EMPTY_CONSTRUCTORS;
+        }
+
+        @Override
+        public ClassDoc[] innerClasses() {
+            return EMPTY_CLASSES;
+        }
+
+        @Override
+        public ClassDoc[] innerClasses(boolean filter) {
+            return EMPTY_CLASSES;
+        }
+
+        @Override
+        public ClassDoc findClass(String className) {
+            return null;
+        }
+
+        @Override
+        @Deprecated
+        public ClassDoc[] importedClasses() {
+            return EMPTY_CLASSES;
+        }
+
+        @Override
+        @Deprecated
+        public PackageDoc[] importedPackages() {
+            return new PackageDoc[0];
+        }
+
+        @Override
+        public String typeName() {
+            return this.name();
+        }
+
+        @Override
+        public String qualifiedTypeName() {
+            return this.qualifiedName();
+        }
+
+        @Override
+        public String simpleTypeName() {
+            return this.simpleTypeName;
+        }
+
+        @Override
+        public String dimension() {
+            return "";
+        }
+
+        @Override
+        public boolean isPrimitive() {
+            return false;
+        }
+
+        @Override
+        public ClassDoc asClassDoc() {
+            return this;
+        }
+
+        @Override
+        public ParameterizedType asParameterizedType() {
+            return null;
+        }
+
+        @Override
+        public TypeVariable asTypeVariable() {
+            return null;
+        }
+
+        @Override
+        public WildcardType asWildcardType() {
+            return null;
+        }
+
+        @Override
+        public AnnotatedType asAnnotatedType() {
+            return null;
+        }
+
+        @Override
+        public AnnotationTypeDoc asAnnotationTypeDoc() {
+            return null;
+        }
+
+        @Override
+        public Type getElementType() {
+            return null;
+        }
+    }
+
+    /**
+     * Field document snapshot
+     */
+    static final class FieldSnapshot extends DocumentSnapshot implements FieldDoc {
+        /**
+         * Field type
+         */
+        private final Type type;
+
+        /**
+         * Whether the field is an enum constant
+         */
+        private final boolean enumConstant;
+
+        /**
+         * Whether the field is synthetic
+         */
+        private final boolean synthetic;
+
+        /**
+         * Constant value, only primitive and string constants are kept
+         */
+        private final Object constantValue;
+
+        /**
+         * Constant value expression
+         */
+        private final String constantValueExpression;
+
+        private FieldSnapshot(FieldDoc doc, ClassDoc containingClass) {
+            super(doc, containingClass);
+            this.type = TypeSnapshot.of(doc.type());
+            this.enumConstant = doc.isEnumConstant();
+            this.synthetic = doc.isSynthetic();
+            Object value = doc.constantValue();
+            this.constantValue = value instanceof String || value instanceof Number || value instanceof Boolean
+                    || value instanceof Character ? value : null;
+            this.constantValueExpression = doc.constantValueExpression();
+        }
+
+        @Override
+        public boolean isField() {
+            return !this.enumConstant;
+        }
+
+        @Override
+        public boolean isEnumConstant() {
+            return this.enumConstant;
+        }
+
+        @Override
+        public boolean isSynthetic() {
+            return this.synthetic;
+        }
+
+        @Override
+        public Type type() {
+            return this.type;
+        }
+
+        @Override
+        public boolean isTransient() {
+            return Modifier.isTransient(this.modifierSpecifier());
+        }
+
+        @Override
+        public boolean isVolatile() {
+            return Modifier.isVolatile(this.modifierSpecifier());
+        }
+
+        @Override
+        public SerialFieldTag[] serialFieldTags() {
+            return new SerialFieldTag[0];
+        }
+
+        @Override
+        public Object constantValue() {
+            return this.constantValue;
+        }
+
+        @Override
+        public String constantValueExpression() {
+            return this.constantValueExpression;
+        }
+    }
+
+    /**
+     * Method document snapshot
+     */
+    static final class MethodSnapshot extends DocumentSnapshot implements MethodDoc {
+        /**
+         * Whether the method is synthetic
+         */
+        private final boolean synthetic;
+
+        /**
+         * Whether the method accepts variable arguments
+         */
+        private final boolean varArgs;
+
+        /**
+         * Whether the method is a default method
+         */
+        private final boolean isDefault;
+
+        /**
+         * Method signature
+         */
+        private final String signature;
+
+        /**
+         * Flat method signature
+         */
+        private final String flatSignature;
+
+        /**
+         * Return type
+         */
+        private final Type returnType;
+
+        /**
+         * Method parameters
+         */
+        private final Parameter[] parameters;
+
+        /**
+         * Parameter tags
+         */
+        private final ParamTag[] paramTags;
+
+        /**
+         * Type parameter tags
+         */
+        private final ParamTag[] typeParamTags;
+
+        private MethodSnapshot(MethodDoc doc, ClassDoc containingClass) {
+            super(doc, containingClass);
+            this.synthetic = doc.isSynthetic();
+            this.varArgs = doc.isVarArgs();
+            this.isDefault = doc.isDefault();
+            this.signature = doc.signature();
+            this.flatSignature = doc.flatSignature();
+            this.returnType = TypeSnapshot.of(doc.returnType());
+            this.parameters = Arrays.stream(doc.parameters()).map(ParameterSnapshot::new).toArray(Parameter[]::new);
+            this.paramTags = TagSnapshot.of(this, doc.paramTags());
+            this.typeParamTags = TagSnapshot.of(this, doc.typeParamTags());
+        }
+
+        @Override
+        public boolean isMethod() {
+            return true;
+        }
+
+        @Override
+        public boolean isSynthetic() {
+            return this.synthetic;
+        }
+
+        @Override
+        public ClassDoc[] thrownExceptions() {
+            return EMPTY_CLASSES;
+        }
+
+        @Override
+        public Type[] thrownExceptionTypes() {
+            return new Type[0];
+        }
+
+        @Override
+        public boolean isNative() {
+            return Modifier.isNative(this.modifierSpecifier());
+        }
+
+        @Override
+        public boolean isSynchronized() {
+            return Modifier.isSynchronized(this.modifierSpecifier());
+        }
+
+        @Override
+        public boolean isVarArgs() {
+            return this.varArgs;
+        }
+
+        @Override
+        public Parameter[] parameters() {
+            return this.parameters.clone();
+        }
+
+        @Override
+        public Type receiverType() {
+            return null;
+        }
+
+        @Override
+        public ThrowsTag[] throwsTags() {
+            return new ThrowsTag[0];
+        }
+
+        @Override
+        public ParamTag[] paramTags() {
+            return this.paramTags.clone();
+        }
+
+        @Override
+        public ParamTag[] typeParamTags() {
+            return this.typeParamTags.clone();
+        }
+
+        @Override
+        public String signature() {
+            return this.signature;
+        }
+
+        @Override
+        public String flatSignature() {
+            return this.flatSignature;
+        }
+
+        @Override
+        public TypeVariable[] typeParameters() {
+            return EMPTY_TYPE_VARIABLES;
+        }
+
+        @Override
+        public boolean isAbstract() {
+            return Modifier.isAbstract(this.modifierSpecifier());
+        }
+
+        @Override
+        public boolean isDefault() {
+            return this.isDefault;
+        }
+
+        @Override
+        public Type returnType() {
+            return this.returnType;
+        }
+
+        @Override
+        public ClassDoc overriddenClass() {
+            return null;
+        }
+
+        @Override
+        public Type overriddenType() {
+            return null;
+        }
+
+        @Override
+        public MethodDoc overriddenMethod() {
+            return null;
+        }
+
+        @Override
+        public boolean overrides(MethodDoc meth) {
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            return this.qualifiedName() + this.signature;
+        }
+    }
+
+    /**
+     * Method parameter snapshot
+     */
+    static final class ParameterSnapshot implements Parameter {
+        /**
+         * Parameter name
+         */
+        private final String name;
+
+        /**
+         * Parameter type
+         */
+        private final Type type;
+
+        private ParameterSnapshot(Parameter parameter) {
+            this.name = parameter.name();
+            this.type = TypeSnapshot.of(parameter.type());
+        }
+
+        @Override
+        public Type type() {
+            return this.type;
+        }
+
+        @Override
+        public String name() {
+            return this.name;
+        }
+
+        @Override
+        public String typeName() {
+            return this.type.typeName() + this.type.dimension();
+        }
+
+        @Override
+        public AnnotationDesc[] annotations() {
+            return EMPTY_ANNOTATIONS;
+        }
+
+        @Override
+        public String toString() {
+            return this.typeName() + " " + this.name;
+        }
+    }
+
+    /**
+     * Type snapshot, which carries the type names only
+     */
+    static final class TypeSnapshot implements Type {
+        /**
+         * Type name
+         */
+        private final String typeName;
+
+        /**
+         * Qualified type name
+         */
+        private final String qualifiedTypeName;
+
+        /**
+         * Simple type name
+         */
+        private final String simpleTypeName;
+
+        /**
+         * Array dimension
+         */
+        private final String dimension;
+
+        /**
+         * Type string including type arguments
+         */
+        private final String string;
+
+        /**
+         * Whether the type is primitive
+         */
+        private final boolean primitive;
+
+        private TypeSnapshot(Type type) {
+            this.typeName = type.typeName();
+            this.qualifiedTypeName = type.qualifiedTypeName();
+            this.simpleTypeName = type.simpleTypeName();
+            this.dimension = type.dimension();
+            this.string = type.toString();
+            this.primitive = type.isPrimitive();
+        }
+
+        /**
+         * Snapshot the type
+         *
+         * @param type Type object
+         * @return Type snapshot or null
+         */
+        private static Type of(Type type) {
+            return type == null ? null : new TypeSnapshot(type);
+        }
+
+        @Override
+        public String typeName() {
+            return this.typeName;
+        }
+
+        @Override
+        public String qualifiedTypeName() {
+            return this.qualifiedTypeName;
+        }
+
+        @Override
+        public String simpleTypeName() {
+            return this.simpleTypeName;
+        }
+
+        @Override
+        public String dimension() {
+            return this.dimension;
+        }
+
+        @Override
+        public boolean isPrimitive() {
+            return this.primitive;
+        }
+
+        @Override
+        public ClassDoc asClassDoc() {
+            return null;
+        }
+
+        @Override
+        public ParameterizedType asParameterizedType() {
+            return null;
+        }
+
+        @Override
+        public TypeVariable asTypeVariable() {
+            return null;
+        }
+
+        @Override
+        public WildcardType asWildcardType() {
+            return null;
+        }
+
+        @Override
+        public AnnotatedType asAnnotatedType() {
+            return null;
+        }
+
+        @Override
+        public AnnotationTypeDoc asAnnotationTypeDoc() {
+            return null;
+        }
+
+        @Override
+        public Type getElementType() {
+            return null;
+        }
+
+        @Override
+        public String toString() {
+            return this.string;
+        }
+    }
+
+    /**
+     * Tag snapshot, the inline tags of a block tag are captured one level deep as text only tags
+     */
+    static class TagSnapshot implements Tag {
+        /**
+         * Holder document snapshot
+         */
+        private final Doc holder;
+
+        /**
+         * Tag name
+         */
+        private final String name;
+
+        /**
+         * Tag kind
+         */
+        private final String kind;
+
+        /**
+         * Tag text
+         */
+        private final String text;
+
+        /**
+         * Inline tags, null for the inline tags themselves
+         */
+        private final Tag[] inlineTags;
+
+        /**
+         * First sentence inline tags, null for the inline tags themselves
+         */
+        private final Tag[] firstSentenceTags;
+
+        private TagSnapshot(Doc holder, Tag tag, boolean nested) {
+            this.holder = holder;
+            this.name = tag.name();
+            this.kind = tag.kind();
+            this.text = tag.text();
+            this.inlineTags = nested ? inline(holder, tag.inlineTags()) : null;
+            this.firstSentenceTags = nested ? inline(holder, tag.firstSentenceTags()) : null;
+        }
+
+        /**
+         * Snapshot the inline tags, which are never expanded any further
+         *
+         * @param holder Holder document snapshot
+         * @param tags   Inline tag array
+         * @return Inline tag snapshots
+         */
+        private static Tag[] inline(Doc holder, Tag[] tags) {
+            return Arrays.stream(tags).map(tag -> new TagSnapshot(holder, tag, false)).toArray(Tag[]::new);
+        }
+
+        /**
+         * Snapshot the tags
+         *
+         * @param holder Holder document snapshot
+         * @param tags   Tag array
+         * @return Tag snapshots
+         */
+        private static Tag[] of(Doc holder, Tag[] tags) {
+            return Arrays.stream(tags).map(tag -> tag instanceof ParamTag ? new ParamTagSnapshot(holder,
+                    (ParamTag) tag) : new TagSnapshot(holder, tag, true)).toArray(Tag[]::new);
+        }
+
+        /**
+         * Snapshot the parameter tags
+         *
+         * @param holder Holder document snapshot
+         * @param tags   Parameter tag array
+         * @return Parameter tag snapshots
+         */
+        private static ParamTag[] of(Doc holder, ParamTag[] tags) {
+            return Arrays.stream(tags).map(tag -> new ParamTagSnapshot(holder, tag)).toArray(ParamTag[]::new);
+        }
+
+        @Override
+        public String name() {
+            return this.name;
+        }
+
+        @Override
+        public Doc holder() {
+            return this.holder;
+        }
+
+        @Override
+        public String kind() {
+            return this.kind;
+        }
+
+        @Override
+        public String text() {
+            return this.text;
+        }
+
+        @Override
+        public Tag[] inlineTags() {
+            return this.inlineTags == null ? new Tag[]{this} : this.inlineTags.clone();
+        }
+
+        @Override
+        public Tag[] firstSentenceTags() {
+            return this.firstSentenceTags == null ? new Tag[]{this} : this.firstSentenceTags.clone();
+        }
+
+        @Override
+        public SourcePosition position() {
+            return null;
+        }
+
+        @Override
+        public String toString() {
+            return this.name + ":" + this.text;
+        }
+    }
+
+    /**
+     * Parameter tag snapshot
+     */
+    static final class ParamTagSnapshot extends TagSnapshot implements ParamTag {
+        /**
+         * Parameter name
+         */
+        private final String parameterName;
+
+        /**
+         * Parameter comment
+         */
+        private final String parameterComment;
+
+        /**
+         * Whether the tag documents a type parameter
+         */
+        private final boolean typeParameter;
+
+        private ParamTagSnapshot(Doc holder, ParamTag tag) {
+            super(holder, tag, true);
+            this.parameterName = tag.parameterName();
+            this.parameterComment = tag.parameterComment();
+            this.typeParameter = tag.isTypeParameter();
+        }
+
+        @Override
+        public String parameterName() {
+            return this.parameterName;
+        }
+
+        @Override
+        public String parameterComment() {
+            return this.parameterComment;
+        }
+
+        @Override
+        public boolean isTypeParameter() {
+            return this.typeParameter;
+        }
+    }
+}
@@ -0,0 +1,472 @@
+package com.arsframework.plugin.apidoc;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLStreamHandler;
+import java.nio.file.Files;
+import java.security.CodeSource;
+import java.security.ProtectionDomain;
+import java.security.cert.Certificate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Class loader backed by a package index, the index is built once over the class directories and jar files, class and
+ * resource lookups go straight to the locations that contain the package, and jar files are opened on first use
+ *
+ * @author Woody
+ */
+final class IndexedClassLoader extends ClassLoader implements Closeable {
+    static {
+        ClassLoader.registerAsParallelCapable();
+    }
+
+    /**
+     * Class file suffix
+     */
+    private static final String CLASS_FILE_SUFFIX = ".class";
+
+    /**
+     * Classpath separator
+     */
+    private static final String CLASSPATH_SEPARATOR = System.getProperty("path.separator");
+
+    /**
+     * Class directories and jar files in classpath order
+     */
+    private final List<File> locations;
+
+    /**
+     * Package path and location mappings
+     */
+    private final Map<String, List<File>> packages = new HashMap<>();
+
+    /**
+     * Opened jar files
+     */
+    private final Map<File, JarFile> jars = new ConcurrentHashMap<>();
+
+    /**
+     * Location and protection domain mappings
+     */
+    private final Map<File, ProtectionDomain> domains = new ConcurrentHashMap<>();
+
+    /**
+     * Classpath of locations which contain class files
+     */
+    private final String classpath;
+
+    /**
+     * Jar url handler, connections skip the jvm wide jar file cache so that no jar file outlives the class loader
+     */
+    private static final URLStreamHandler JAR_URL_HANDLER = new URLStreamHandler() {
+        @Override
+        protected URLConnection openConnection(URL url) throws IOException {
+            URLConnection connection = new URL(url.toExternalForm()).openConnection();
+            connection.setUseCaches(false);
+            return connection;
+        }
+    };
+
+    IndexedClassLoader(List<File> locations, ClassLoader parent) throws IOException {
+        super(parent);
+        Objects.requireNonNull(locations, "locations not specified");
+        this.locations = Collections.unmodifiableList(new ArrayList<>(new LinkedHashSet<>(locations)));
+        Set<File> classes = new HashSet<>();
+        for (File location : this.locations) {
+            if (location.isDirectory()) {
+                this.index(location, location, "", classes);
+            } else if (location.isFile()) {
+                try (JarFile jar = new JarFile(location)) {
+                    Enumeration<JarEntry> entries = jar.entries();
+                    while (entries.hasMoreElements()) {
+                        JarEntry entry = entries.nextElement();
+                        if (!entry.isDirectory()) {
+                            this.register(getPackagePath(entry.getName()), location);
+                            if (entry.getName().endsWith(CLASS_FILE_SUFFIX)) {
+                                classes.add(location);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        this.classpath = this.locations.stream().filter(classes::contains).map(File::getPath)
+                .collect(Collectors.joining(CLASSPATH_SEPARATOR));
+    }
+
+    /**
+     * Get the package path of resource
+     *
+     * @param resource Resource path
+     * @return Package path
+     */
+    private static String getPackagePath(String resource) {
+        int index = resource.lastIndexOf('/');
+        return index < 0 ? "" : resource.substring(0, index);
+    }
+
+    /**
+     * Index the class directory
+     *
+     * @param location  Class directory
+     * @param directory Current directory
+     * @param path      Current package path
+     * @param classes   Locations which contain class files
+     */
+    private void index(File location, File directory, String path, Set<File> classes) {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        boolean registered = false;
+        for (File file : files) {
+            if (file.isDirectory()) {
+                this.index(location, file, path.isEmpty() ? file.getName() : path + "/" + file.getName(), classes);
+            } else {
+                if (!registered) {
+                    this.register(path, location);
+                    registered = true;
+                }
+                if (file.getName().endsWith(CLASS_FILE_SUFFIX)) {
+                    classes.add(location);
+                }
+            }
+        }
+    }
+
+    /**
+     * Register the location of package
+     *
+     * @param path     Package path
+     * @param location Class directory or jar file
+     */
+    private void register(String path, File location) {
+        List<File> candidates = this.packages.computeIfAbsent(path, p -> new ArrayList<>(1));
+        if (!candidates.contains(location)) {
+            candidates.add(location);
+        }
+    }
+
+    /**
+     * Get the opened jar file
+     *
+     * @param location Jar file location
+     * @return Jar file
+     * @throws IOException IO exception
+     */
+    private JarFile getJarFile(File location) throws IOException {
+        JarFile jar = this.jars.get(location);
+        if (jar == null) {
+            synchronized (this.jars) {
+                if ((jar = this.jars.get(location)) == null) {
+                    this.jars.put(location, jar = new JarFile(location));
+                }
+            }
+        }
+        return jar;
+    }
+
+    /**
+     * Read the resource bytes from location
+     *
+     * @param location Class directory or jar file
+     * @param resource Resource path
+     * @return Resource bytes or null if the resource does not exist
+     * @throws IOException IO exception
+     */
+    private byte[] read(File location, String resource) throws IOException {
+        if (location.isDirectory()) {
+            File file = new File(location, resource);
+            return file.isFile() ? Files.readAllBytes(file.toPath()) : null;
+        }
+        JarFile jar = this.getJarFile(location);
+        JarEntry entry = jar.getJarEntry(resource);
+        if (entry == null) {
+            return null;
+        }
+        try (InputStream input = jar.getInputStream(entry)) {
+            ByteArrayOutputStream output = new ByteArrayOutputStream(Math.max((int) entry.getSize(), 1024));
+            byte[] buffer = new byte[8192];
+            int length;
+            while ((length = input.read(buffer)) > 0) {
+                output.write(buffer, 0, length);
+            }
+            return output.toByteArray();
+        }
+    }
+
+    /**
+     * Open the resource stream from location
+     *
+     * @param location Class directory or jar file
+     * @param resource Resource path
+     * @return Resource stream or null if the resource does not exist
+     * @throws IOException IO exception
+     */
+    private InputStream open(File location, String resource) throws IOException {
+        if (location.isDirectory()) {
+            File file = new File(location, resource);
+            return file.isFile() ? Files.newInputStream(file.toPath()) : null;
+        }
+        JarFile jar = this.getJarFile(location);
+        JarEntry entry = jar.getJarEntry(resource);
+        return entry == null ? null : jar.getInputStream(entry);
+    }
+
+    /**
+     * Check whether the resource exists in location
+     *
+     * @param location Class directory or jar file
+     * @param resource Resource path
+     * @return true/false
+     * @throws IOException IO exception
+     */
+    private boolean exists(File location, String resource) throws IOException {
+        return location.isDirectory() ? new File(location, resource).isFile()
+                : this.getJarFile(location).getJarEntry(resource) != null;
+    }
+
+    /**
+     * Convert the resource of location to url
+     *
+     * @param location Class directory or jar file
+     * @param resource Resource path
+     * @return Resource url
+     * @throws MalformedURLException Malformed url exception
+     */
+    private URL toURL(File location, String resource) throws MalformedURLException {
+        if (location.isDirectory()) {
+            return new File(location, resource).toURI().toURL();
+        }
+        return new URL(null, "jar:" + location.toURI().toURL() + "!/" + resource, JAR_URL_HANDLER);
+    }
+
+    /**
+     * Get the protection domain of location
+     *
+     * @param location Class directory or jar file
+     * @return Protection domain
+     */
+    private ProtectionDomain getProtectionDomain(File location) {
+        return this.domains.computeIfAbsent(location, file -> {
+            try {
+                return new ProtectionDomain(new CodeSource(file.toURI().toURL(), (Certificate[]) null), null, this,
+                        null);
+            } catch (MalformedURLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    /**
+     * Get the location which contains the class
+     *
+     * @param name Class name
+     * @return Class directory or jar file, or null if the class is not indexed
+     */
+    public File locate(String name) {
+        Objects.requireNonNull(name, "name not specified");
+        String resource = name.replace('.', '/') + CLASS_FILE_SUFFIX;
+        for (File location : this.packages.getOrDefault(getPackagePath(resource), Collections.emptyList())) {
+            try {
+                if (this.exists(location, resource)) {
+                    return location;
+                }
+            } catch (IOException ignored) {
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the names of top level classes in location
+     *
+     * @param location Class directory or jar file
+     * @param packages Package name filter, packages rejected by the filter are skipped without being read
+     * @return Class names
+     * @throws IOException IO exception
+     */
+    public List<String> getClassNames(File location, Predicate<String> packages) throws IOException {
+        Objects.requireNonNull(location, "location not specified");
+        Objects.requireNonNull(packages, "packages not specified");
+        List<String> names = new ArrayList<>();
+        Map<String, Boolean> accepted = new HashMap<>();
+        if (location.isDirectory()) {
+            this.packages.forEach((path, candidates) -> {
+                File[] files;
+                if (candidates.contains(location) && packages.test(path.replace('/', '.'))
+                        && (files = new File(location, path).listFiles()) != null) {
+                    for (File file : files) {
+                        String name = path.isEmpty() ? file.getName() : path + "/" + file.getName();
+                        if (file.isFile() && isTopLevelClass(name)) {
+                            names.add(toClassName(name));
+                        }
+                    }
+                }
+            });
+        } else {
+            Enumeration<JarEntry> entries = this.getJarFile(location).entries();
+            while (entries.hasMoreElements()) {
+                JarEntry entry = entries.nextElement();
+                String name = entry.getName();
+                if (!entry.isDirectory() && isTopLevelClass(name) && accepted.computeIfAbsent(getPackagePath(name),
+                        path -> packages.test(path.replace('/', '.')))) {
+                    names.add(toClassName(name));
+                }
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Check whether the resource is a top level class file
+     *
+     * @param resource Resource path
+     * @return true/false
+     */
+    private static boolean isTopLevelClass(String resource) {
+        return resource.endsWith(CLASS_FILE_SUFFIX) && resource.indexOf('$') < 0
+                && !resource.endsWith("package-info" + CLASS_FILE_SUFFIX)
+                && !resource.endsWith("module-info" + CLASS_FILE_SUFFIX);
+    }
+
+    /**
+     * Convert the class file path to class name
+     *
+     * @param resource Class file path
+     * @return Class name
+     */
+    private static String toClassName(String resource) {
+        return resource.substring(0, resource.length() - CLASS_FILE_SUFFIX.length()).replace('/', '.');
+    }
+
+    /**
+     * Get all indexed locations
+     *
+     * @return Class directories and jar files in classpath order
+     */
+    public List<File> getLocations() {
+        return this.locations;
+    }
+
+    /**
+     * Get the classpath of all locations which contain class files, locations holding resources only are left out
+     *
+     * @return Classpath string
+     */
+    public String getClasspath() {
+        return this.classpath;
+    }
+
+    @Override
+    protected Class<?> findClass(String name) throws ClassNotFoundException {
+        String resource = name.replace('.', '/') + CLASS_FILE_SUFFIX;
+        String path = getPackagePath(resource);
+        for (File location : this.packages.getOrDefault(path, Collections.emptyList())) {
+            byte[] bytes;
+            try {
+                bytes = this.read(location, resource);
+            } catch (IOException e) {
+                throw new ClassNotFoundException(name, e);
+            }
+            if (bytes != null) {
+                String pkg = path.replace('/', '.');
+                if (!pkg.isEmpty() && this.getPackage(pkg) == null) {
+                    try {
+                        this.definePackage(pkg, null, null, null, null, null, null, null);
+                    } catch (IllegalArgumentException ignored) {
+                        // Defined concurrently by another thread
+                    }
+                }
+                return this.defineClass(name, bytes, 0, bytes.length, this.getProtectionDomain(location));
+            }
+        }
+        throw new ClassNotFoundException(name);
+    }
+
+    @Override
+    protected URL findResource(String name) {
+        for (File location : this.packages.getOrDefault(getPackagePath(name), Collections.emptyList())) {
+            try {
+                if (this.exists(location, name)) {
+                    return this.toURL(location, name);
+                }
+            } catch (IOException ignored) {
+            }
+        }
+        return null;
+    }
+
+    @Override
+    protected Enumeration<URL> findResources(String name) throws IOException {
+        List<URL> urls = new ArrayList<>(1);
+        for (File location : this.packages.getOrDefault(getPackagePath(name), Collections.emptyList())) {
+            if (this.exists(location, name)) {
+                urls.add(this.toURL(location, name));
+            }
+        }
+        return Collections.enumeration(urls);
+    }
+
+    @Override
+    public InputStream getResourceAsStream(String name) {
+        Objects.requireNonNull(name, "name not specified");
+        ClassLoader parent = this.getParent();
+        InputStream input = parent == null ? ClassLoader.getSystemResourceAsStream(name)
+                : parent.getResourceAsStream(name);
+        if (input != null) {
+            return input;
+        }
+        for (File location : this.packages.getOrDefault(getPackagePath(name), Collections.emptyList())) {
+            try {
+                if ((input = this.open(location, name)) != null) {
+                    return input;
+                }
+            } catch (IOException ignored) {
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOException exception = null;
+        synchronized (this.jars) {
+            for (JarFile jar : this.jars.values()) {
+                try {
+                    jar.close();
+                } catch (IOException e) {
+                    if (exception == null) {
+                        exception = e;
+                    } else {
+                        exception.addSuppressed(e);
+                    }
+                }
+            }
+            this.jars.clear();
+        }
+        if (exception != null) {
+            throw exception;
+        }
+    }
+}
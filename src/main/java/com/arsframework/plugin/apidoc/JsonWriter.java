@@ -0,0 +1,230 @@
+package com.arsframework.plugin.apidoc;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Objects;
+
+/**
+ * Streaming json writer, values are written to the underlying writer as soon as they are emitted so that large
+ * documents never need to be held in memory
+ *
+ * @author Woody
+ */
+final class JsonWriter implements Closeable, Flushable {
+    /**
+     * Target writer
+     */
+    private final Writer writer;
+
+    /**
+     * Scope stack, the value is true if the scope already has an element
+     */
+    private final Deque<Boolean> scopes = new ArrayDeque<>();
+
+    /**
+     * Whether the next value is an object member value
+     */
+    private boolean named;
+
+    JsonWriter(Writer writer) {
+        this.writer = Objects.requireNonNull(writer, "writer not specified");
+    }
+
+    /**
+     * Write the separator before a new element
+     *
+     * @throws IOException IO exception
+     */
+    private void separate() throws IOException {
+        if (this.named) {
+            this.named = false;
+            return;
+        }
+        if (!this.scopes.isEmpty()) {
+            if (this.scopes.pop()) {
+                this.writer.write(',');
+            }
+            this.scopes.push(true);
+        }
+    }
+
+    /**
+     * Write the quoted and escaped string
+     *
+     * @param value String value
+     * @throws IOException IO exception
+     */
+    private void quote(String value) throws IOException {
+        this.writer.write('"');
+        for (int i = 0, length = value.length(); i < length; i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    this.writer.write("\\\"");
+                    break;
+                case '\\':
+                    this.writer.write("\\\\");
+                    break;
+                case '\n':
+                    this.writer.write("\\n");
+                    break;
+                case '\r':
+                    this.writer.write("\\r");
+                    break;
+                case '\t':
+                    this.writer.write("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        this.writer.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        this.writer.write(c);
+                    }
+            }
+        }
+        this.writer.write('"');
+    }
+
+    /**
+     * Begin an object
+     *
+     * @return Json writer
+     * @throws IOException IO exception
+     */
+    public JsonWriter beginObject() throws IOException {
+        this.separate();
+        this.writer.write('{');
+        this.scopes.push(false);
+        return this;
+    }
+
+    /**
+     * End the current object
+     *
+     * @return Json writer
+     * @throws IOException IO exception
+     */
+    public JsonWriter endObject() throws IOException {
+        this.scopes.pop();
+        this.writer.write('}');
+        return this;
+    }
+
+    /**
+     * Begin an array
+     *
+     * @return Json writer
+     * @throws IOException IO exception
+     */
+    public JsonWriter beginArray() throws IOException {
+        this.separate();
+        this.writer.write('[');
+        this.scopes.push(false);
+        return this;
+    }
+
+    /**
+     * End the current array
+     *
+     * @return Json writer
+     * @throws IOException IO exception
+     */
+    public JsonWriter endArray() throws IOException {
+        this.scopes.pop();
+        this.writer.write(']');
+        return this;
+    }
+
+    /**
+     * Write the member name of current object
+     *
+     * @param name Member name
+     * @return Json writer
+     * @throws IOException IO exception
+     */
+    public JsonWriter name(String name) throws IOException {
+        Objects.requireNonNull(name, "name not specified");
+        this.separate();
+        this.quote(name);
+        this.writer.write(':');
+        this.named = true;
+        return this;
+    }
+
+    /**
+     * Write the string value
+     *
+     * @param value String value
+     * @return Json writer
+     * @throws IOException IO exception
+     */
+    public JsonWriter value(String value) throws IOException {
+        this.separate();
+        if (value == null) {
+            this.writer.write("null");
+        } else {
+            this.quote(value);
+        }
+        return this;
+    }
+
+    /**
+     * Write the number value, non finite floating point values are written as null
+     *
+     * @param value Number value
+     * @return Json writer
+     * @throws IOException IO exception
+     */
+    public JsonWriter value(Number value) throws IOException {
+        this.separate();
+        if (value == null || (value instanceof Double || value instanceof Float)
+                && !Double.isFinite(value.doubleValue())) {
+            this.writer.write("null");
+        } else if (value instanceof BigDecimal) {
+            this.writer.write(((BigDecimal) value).toPlainString());
+        } else {
+            this.writer.write(value.toString());
+        }
+        return this;
+    }
+
+    /**
+     * Write the boolean value
+     *
+     * @param value Boolean value
+     * @return Json writer
+     * @throws IOException IO exception
+     */
+    public JsonWriter value(boolean value) throws IOException {
+        this.separate();
+        this.writer.write(value ? "true" : "false");
+        return this;
+    }
+
+    /**
+     * Write the object member if the value is not null
+     *
+     * @param name  Member name
+     * @param value String value
+     * @return Json writer
+     * @throws IOException IO exception
+     */
+    public JsonWriter property(String name, String value) throws IOException {
+        return value == null ? this : this.name(name).value(value);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        this.writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.writer.close();
+    }
+}
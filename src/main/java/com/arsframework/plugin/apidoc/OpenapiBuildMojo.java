@@ -0,0 +1,481 @@
+package com.arsframework.plugin.apidoc;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.arsframework.apidoc.core.Api;
+import com.arsframework.apidoc.core.ClassHelper;
+import com.arsframework.apidoc.core.Parameter;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+
+/**
+ * OpenAPI 3 build mojo, which writes the api model to an OpenAPI json document without the apidoc toolchain
+ *
+ * @author Woody
+ */
+@Mojo(name = "openapi", requiresDependencyResolution = ResolutionScope.COMPILE,
+        requiresDependencyCollection = ResolutionScope.COMPILE, threadSafe = true)
+public class OpenapiBuildMojo extends AbstractBuildMojo {
+    /**
+     * OpenAPI specification version
+     */
+    private static final String OPENAPI_VERSION = "3.0.3";
+
+    /**
+     * Component schema reference prefix
+     */
+    private static final String SCHEMA_REFERENCE_PREFIX = "#/components/schemas/";
+
+    /**
+     * Path variable pattern
+     */
+    private static final Pattern PATH_VARIABLE_PATTERN = Pattern.compile("\\{([^}:]+)(:[^}]*)?}");
+
+    /**
+     * Output file of OpenAPI document
+     */
+    @org.apache.maven.plugins.annotations.Parameter(defaultValue = "${project.build.directory}/openapi.json",
+            required = true)
+    private String output;
+
+    /**
+     * Title of OpenAPI document
+     */
+    @org.apache.maven.plugins.annotations.Parameter(defaultValue = "${project.name}", required = true)
+    private String title;
+
+    /**
+     * Version of OpenAPI document
+     */
+    @org.apache.maven.plugins.annotations.Parameter(defaultValue = "${project.version}", required = true)
+    private String version;
+
+    /**
+     * Component schemas in registration order
+     */
+    private final List<Parameter> components = new ArrayList<>();
+
+    /**
+     * Class and component schema name mappings
+     */
+    private final Map<Class<?>, String> schemaNames = new HashMap<>();
+
+    /**
+     * Component schema name and structure signature mappings
+     */
+    private final Map<String, String> schemaSignatures = new HashMap<>();
+
+    /**
+     * Check whether the parameter is an object with fields
+     *
+     * @param parameter Parameter object
+     * @return true/false
+     */
+    private static boolean isObject(Parameter parameter) {
+        return parameter.getType() == Object.class && parameter.getFields() != null
+                && !parameter.getFields().isEmpty();
+    }
+
+    /**
+     * Build the structure signature of parameter fields
+     *
+     * @param parameter Parameter object
+     * @param signature Signature builder
+     */
+    private static void signature(Parameter parameter, StringBuilder signature) {
+        signature.append('(');
+        for (Parameter field : parameter.getFields()) {
+            signature.append(field.getName()).append(':').append(field.getType().getName());
+            if (field.isMultiple()) {
+                signature.append("[]");
+            }
+            if (field.isRequired()) {
+                signature.append('!');
+            }
+            if (isObject(field)) {
+                signature(field, signature);
+            }
+            signature.append(';');
+        }
+        signature.append(')');
+    }
+
+    /**
+     * Get the component schema name of parameter
+     *
+     * @param parameter Parameter object
+     * @return Schema name or null if the parameter should be written inline
+     */
+    private String getSchemaName(Parameter parameter) {
+        Class<?> original = parameter.getOriginal();
+        if (original == null || original == Object.class || original.isPrimitive() || original.isArray()
+                || original.getName().startsWith("java.")) {
+            return null;
+        }
+        StringBuilder signature = new StringBuilder();
+        signature(parameter, signature);
+        String name = this.schemaNames.get(original);
+        if (name == null) {
+            name = original.getSimpleName();
+            if (this.schemaSignatures.containsKey(name)) {
+                name = original.getName().replace('.', '_').replace('$', '_');
+            }
+            this.schemaNames.put(original, name);
+            this.schemaSignatures.put(name, signature.toString());
+            this.components.add(parameter);
+        }
+        // Generic types share the original class but differ in structure
+        return signature.toString().equals(this.schemaSignatures.get(name)) ? name : null;
+    }
+
+    /**
+     * Write the value in the json type of parameter, values which can not be converted are written as string
+     *
+     * @param writer    Json writer
+     * @param parameter Parameter object
+     * @param value     Value object
+     * @throws IOException IO exception
+     */
+    private static void writeValue(JsonWriter writer, Parameter parameter, Object value) throws IOException {
+        Class<?> type = parameter.getType();
+        String text = String.valueOf(value).trim();
+        if ((type == Boolean.class || type == boolean.class) && (text.equals("true") || text.equals("false"))) {
+            writer.value(Boolean.parseBoolean(text));
+        } else if (ClassHelper.isIntClass(type) || ClassHelper.isFloatClass(type)) {
+            try {
+                writer.value(new BigDecimal(text));
+            } catch (NumberFormatException e) {
+                writer.value(String.valueOf(value));
+            }
+        } else {
+            writer.value(String.valueOf(value));
+        }
+    }
+
+    /**
+     * Write the options and default value of parameter, which apply to the items of multiple parameter
+     *
+     * @param writer    Json writer
+     * @param parameter Parameter object
+     * @throws IOException IO exception
+     */
+    private void writeValues(JsonWriter writer, Parameter parameter) throws IOException {
+        List<Parameter.Option> options = parameter.getOptions();
+        if (options != null && !options.isEmpty()) {
+            writer.name("enum").beginArray();
+            for (Parameter.Option option : options) {
+                writeValue(writer, parameter, option.getKey());
+            }
+            writer.endArray();
+        }
+        if (parameter.getDefaultValue() != null) {
+            writer.name("default");
+            writeValue(writer, parameter, parameter.getDefaultValue());
+        }
+    }
+
+    /**
+     * Write the constraints and description of parameter, the size of multiple parameter limits the number of items
+     *
+     * @param writer    Json writer
+     * @param parameter Parameter object
+     * @throws IOException IO exception
+     */
+    private void writeConstraints(JsonWriter writer, Parameter parameter) throws IOException {
+        if (parameter.getSize() != null) {
+            Class<?> type = parameter.getType();
+            boolean number = ClassHelper.isIntClass(type) || ClassHelper.isFloatClass(type);
+            String min = parameter.isMultiple() ? "minItems" : number ? "minimum" : "minLength";
+            String max = parameter.isMultiple() ? "maxItems" : number ? "maximum" : "maxLength";
+            if (parameter.getSize().getMin() != null) {
+                writer.name(min).value(BigDecimal.valueOf(parameter.getSize().getMin()).stripTrailingZeros());
+            }
+            if (parameter.getSize().getMax() != null) {
+                writer.name(max).value(BigDecimal.valueOf(parameter.getSize().getMax()).stripTrailingZeros());
+            }
+        }
+        writer.property("description", parameter.getDescription());
+        if (parameter.isDeprecated()) {
+            writer.name("deprecated").value(true);
+        }
+    }
+
+    /**
+     * Write the properties of object parameter
+     *
+     * @param writer    Json writer
+     * @param parameter Parameter object
+     * @throws IOException IO exception
+     */
+    private void writeProperties(JsonWriter writer, Parameter parameter) throws IOException {
+        writer.name("type").value("object");
+        List<String> required = new ArrayList<>();
+        writer.name("properties").beginObject();
+        for (Parameter field : parameter.getFields()) {
+            writer.name(field.getName());
+            this.writeSchema(writer, field);
+            if (field.isRequired()) {
+                required.add(field.getName());
+            }
+        }
+        writer.endObject();
+        if (!required.isEmpty()) {
+            writer.name("required").beginArray();
+            for (String name : required) {
+                writer.value(name);
+            }
+            writer.endArray();
+        }
+    }
+
+    /**
+     * Write the item schema of parameter
+     *
+     * @param writer    Json writer
+     * @param parameter Parameter object
+     * @throws IOException IO exception
+     */
+    private void writeItemSchema(JsonWriter writer, Parameter parameter) throws IOException {
+        Class<?> type = parameter.getType();
+        writer.beginObject();
+        if (isObject(parameter)) {
+            String name = this.getSchemaName(parameter);
+            if (name != null) {
+                writer.name("$ref").value(SCHEMA_REFERENCE_PREFIX + name).endObject();
+                return;
+            }
+            this.writeProperties(writer, parameter);
+        } else if (type == Boolean.class || type == boolean.class) {
+            writer.name("type").value("boolean");
+        } else if (type == String.class) {
+            writer.name("type").value("string");
+        } else if (ClassHelper.isIntClass(type)) {
+            writer.name("type").value("integer");
+            if (type == Long.class || type == long.class || type == BigInteger.class) {
+                writer.name("format").value("int64");
+            }
+        } else if (ClassHelper.isFloatClass(type)) {
+            writer.name("type").value("number");
+        } else if (type == Date.class) {
+            if (parameter.getFormat() == null) {
+                writer.name("type").value("integer").name("format").value("int64");
+            } else {
+                writer.name("type").value("string").name("x-format").value(parameter.getFormat());
+            }
+        } else if (ClassHelper.isStreamClass(type)) {
+            writer.name("type").value("string").name("format").value("binary");
+        } else {
+            writer.name("type").value("object");
+        }
+        this.writeValues(writer, parameter);
+        if (!parameter.isMultiple()) {
+            this.writeConstraints(writer, parameter);
+        }
+        writer.endObject();
+    }
+
+    /**
+     * Write the schema of parameter
+     *
+     * @param writer    Json writer
+     * @param parameter Parameter object
+     * @throws IOException IO exception
+     */
+    private void writeSchema(JsonWriter writer, Parameter parameter) throws IOException {
+        if (parameter.isMultiple()) {
+            writer.beginObject().name("type").value("array").name("items");
+            this.writeItemSchema(writer, parameter);
+            this.writeConstraints(writer, parameter);
+            writer.endObject();
+        } else {
+            this.writeItemSchema(writer, parameter);
+        }
+    }
+
+    /**
+     * Write the request parameters and request body of api
+     *
+     * @param writer Json writer
+     * @param api    Api object
+     * @param method Request method
+     * @throws IOException IO exception
+     */
+    private void writeRequest(JsonWriter writer, Api api, String method) throws IOException {
+        List<Parameter> parameters = api.getParameters();
+        Set<String> variables = new LinkedHashSet<>();
+        Matcher matcher = PATH_VARIABLE_PATTERN.matcher(api.getUrl());
+        while (matcher.find()) {
+            variables.add(matcher.group(1));
+        }
+        boolean query = method.equals("get") || method.equals("delete") || method.equals("head");
+        List<Parameter> bodies = new ArrayList<>();
+        writer.name("parameters").beginArray();
+        for (String variable : variables) {
+            Parameter parameter = parameters == null ? null : parameters.stream()
+                    .filter(p -> p.getName().equals(variable)).findFirst().orElse(null);
+            writer.beginObject().name("name").value(variable).name("in").value("path")
+                    .name("required").value(true).name("schema");
+            if (parameter == null) {
+                writer.beginObject().name("type").value("string").endObject();
+            } else {
+                this.writeSchema(writer, parameter);
+            }
+            writer.endObject();
+        }
+        if (parameters != null) {
+            for (Parameter parameter : parameters) {
+                if (variables.contains(parameter.getName())) {
+                    continue;
+                } else if (!query) {
+                    bodies.add(parameter);
+                    continue;
+                }
+                writer.beginObject().name("name").value(parameter.getName()).name("in").value("query");
+                if (parameter.isRequired()) {
+                    writer.name("required").value(true);
+                }
+                if (isObject(parameter) && !parameter.isMultiple()) {
+                    writer.name("style").value("form").name("explode").value(true);
+                }
+                writer.name("schema");
+                this.writeSchema(writer, parameter);
+                writer.endObject();
+            }
+        }
+        writer.endArray();
+        if (bodies.isEmpty()) {
+            return;
+        }
+        boolean multipart = bodies.stream().anyMatch(p -> ClassHelper.isStreamClass(p.getType()));
+        writer.name("requestBody").beginObject().name("content").beginObject()
+                .name(multipart ? "multipart/form-data" : "application/json").beginObject().name("schema");
+        if (bodies.size() == 1 && !multipart && (isObject(bodies.get(0)) || bodies.get(0).isMultiple())) {
+            this.writeSchema(writer, bodies.get(0));
+        } else {
+            writer.beginObject().name("type").value("object").name("properties").beginObject();
+            for (Parameter parameter : bodies) {
+                writer.name(parameter.getName());
+                this.writeSchema(writer, parameter);
+            }
+            writer.endObject().endObject();
+        }
+        writer.endObject().endObject().endObject();
+    }
+
+    /**
+     * Write the operation of api
+     *
+     * @param writer    Json writer
+     * @param api       Api object
+     * @param method    Request method
+     * @param operation Operation identity
+     * @throws IOException IO exception
+     */
+    private void writeOperation(JsonWriter writer, Api api, String method, String operation) throws IOException {
+        writer.name(method).beginObject();
+        writer.name("tags").beginArray().value(api.getGroup()).endArray();
+        writer.property("summary", api.getName());
+        writer.property("description", api.getDescription());
+        writer.name("operationId").value(operation);
+        if (api.isDeprecated()) {
+            writer.name("deprecated").value(true);
+        }
+        this.writeRequest(writer, api, method);
+        writer.name("responses").beginObject().name("200").beginObject().name("description").value("OK");
+        Parameter returned = api.getReturned();
+        if (returned != null) {
+            writer.name("content").beginObject().name("application/json").beginObject().name("schema");
+            this.writeSchema(writer, returned);
+            writer.endObject().endObject();
+        }
+        writer.endObject().endObject();
+        writer.endObject();
+    }
+
+    @Override
+    protected void building(List<Api> apis) throws Exception {
+        if (apis == null || apis.isEmpty()) {
+            return;
+        }
+
+        Map<String, List<Api>> paths = new LinkedHashMap<>();
+        Set<String> groups = new LinkedHashSet<>();
+        for (Api api : apis) {
+            // Path templates must not carry the variable patterns, e.g. /users/{id:\d+} becomes /users/{id}
+            String path = PATH_VARIABLE_PATTERN.matcher(api.getUrl()).replaceAll("{$1}");
+            paths.computeIfAbsent(path, url -> new ArrayList<>()).add(api);
+            groups.add(api.getGroup());
+        }
+
+        Path file = Paths.get(this.output);
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        this.getLog().info("Building openapi: " + file);
+        try (JsonWriter writer = new JsonWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+            writer.beginObject();
+            writer.name("openapi").value(OPENAPI_VERSION);
+            writer.name("info").beginObject().name("title").value(this.title).name("version").value(this.version)
+                    .endObject();
+            writer.name("tags").beginArray();
+            for (String group : groups) {
+                writer.beginObject().name("name").value(group).endObject();
+            }
+            writer.endArray();
+
+            Set<String> operations = new LinkedHashSet<>();
+            writer.name("paths").beginObject();
+            for (Map.Entry<String, List<Api>> entry : paths.entrySet()) {
+                Set<String> methods = new LinkedHashSet<>();
+                writer.name(entry.getKey()).beginObject();
+                for (Api api : entry.getValue()) {
+                    for (String method : api.getMethods()) {
+                        method = method.toLowerCase(Locale.ENGLISH);
+                        if (!methods.add(method)) {
+                            this.getLog().warn(String.format("Duplicate openapi operation: %s %s", method,
+                                    entry.getKey()));
+                            continue;
+                        }
+                        String operation = operations.add(api.getKey()) ? api.getKey() : api.getKey() + "_" + method;
+                        operations.add(operation);
+                        this.writeOperation(writer, api, method, operation);
+                    }
+                }
+                writer.endObject();
+            }
+            writer.endObject();
+
+            // Component schemas may register nested schemas while being written
+            writer.name("components").beginObject().name("schemas").beginObject();
+            for (int i = 0; i < this.components.size(); i++) {
+                Parameter component = this.components.get(i);
+                writer.name(this.schemaNames.get(component.getOriginal())).beginObject();
+                this.writeProperties(writer, component);
+                writer.endObject();
+            }
+            writer.endObject().endObject();
+            writer.endObject();
+        } finally {
+            this.components.clear();
+            this.schemaNames.clear();
+            this.schemaSignatures.clear();
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.arsframework.plugin.apidoc;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Collectors;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.plugin.logging.Log;
+import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.resolution.ArtifactRequest;
+import org.eclipse.aether.resolution.ArtifactResolutionException;
+
+/**
+ * Dependency source resolver, which resolves and unpacks the sources jar of an artifact only when a class of the
+ * artifact is referenced for the first time, source files of excluded packages and classes are skipped without being
+ * unpacked
+ *
+ * @author Woody
+ */
+final class SourceResolver {
+    /**
+     * Source file suffix
+     */
+    private static final String SOURCE_FILE_SUFFIX = ".java";
+
+    /**
+     * Sources artifact classifier
+     */
+    private static final String SOURCES_CLASSIFIER = "sources";
+
+    /**
+     * Indexed class loader
+     */
+    private final IndexedClassLoader classLoader;
+
+    /**
+     * Artifact file and artifact mappings
+     */
+    private final Map<File, Artifact> artifacts = new HashMap<>();
+
+    /**
+     * Class filter
+     */
+    private final ClassFilter filter;
+
+    /**
+     * Include group identities
+     */
+    private final Collection<String> groups;
+
+    /**
+     * Repository system
+     */
+    private final RepositorySystem system;
+
+    /**
+     * Repository system session
+     */
+    private final RepositorySystemSession session;
+
+    /**
+     * Remote repositories
+     */
+    private final List<RemoteRepository> repositories;
+
+    /**
+     * Source output directory
+     */
+    private final File directory;
+
+    /**
+     * Logger
+     */
+    private final Log log;
+
+    /**
+     * Artifact and unpacked flag mappings
+     */
+    private final Map<Artifact, Boolean> unpacked = new HashMap<>();
+
+    SourceResolver(IndexedClassLoader classLoader, ClassFilter filter, Collection<Artifact> artifacts,
+                   Collection<String> groups, RepositorySystem system, RepositorySystemSession session,
+                   List<RemoteRepository> repositories, File directory, Log log) {
+        this.classLoader = Objects.requireNonNull(classLoader, "classLoader not specified");
+        this.filter = Objects.requireNonNull(filter, "filter not specified");
+        this.groups = Objects.requireNonNull(groups, "groups not specified");
+        this.system = Objects.requireNonNull(system, "system not specified");
+        this.session = Objects.requireNonNull(session, "session not specified");
+        this.repositories = Objects.requireNonNull(repositories, "repositories not specified");
+        this.directory = Objects.requireNonNull(directory, "directory not specified");
+        this.log = Objects.requireNonNull(log, "log not specified");
+        for (Artifact artifact : Objects.requireNonNull(artifacts, "artifacts not specified")) {
+            if (artifact.getFile() != null) {
+                this.artifacts.put(artifact.getFile(), artifact);
+            }
+        }
+    }
+
+    /**
+     * Check whether the artifact is included
+     *
+     * @param artifact Artifact object
+     * @return true/false
+     */
+    public boolean isIncluded(Artifact artifact) {
+        Objects.requireNonNull(artifact, "artifact not specified");
+        return this.groups.stream().anyMatch(artifact.getGroupId()::startsWith);
+    }
+
+    /**
+     * Get the included artifacts
+     *
+     * @return Artifact collection
+     */
+    public Collection<Artifact> getIncludedArtifacts() {
+        return this.artifacts.values().stream().filter(this::isIncluded).collect(Collectors.toList());
+    }
+
+    /**
+     * Check whether the source file is excluded by the class filter
+     *
+     * @param resource Source file path
+     * @param excluded Package name and excluded flag mappings
+     * @return true/false
+     */
+    private boolean isExcluded(String resource, Map<String, Boolean> excluded) {
+        int index = resource.lastIndexOf('/');
+        String pkg = index < 0 ? "" : resource.substring(0, index).replace('/', '.');
+        return excluded.computeIfAbsent(pkg, this.filter::isExcludedPackage) || this.filter.isExcluded(
+                resource.substring(0, resource.length() - SOURCE_FILE_SUFFIX.length()).replace('/', '.'));
+    }
+
+    /**
+     * Unpack the sources jar of artifact
+     *
+     * @param artifact Artifact object
+     * @return true/false
+     */
+    private boolean unpack(Artifact artifact) {
+        Boolean result = this.unpacked.get(artifact);
+        if (result != null) {
+            return result;
+        }
+        result = false;
+        try {
+            ArtifactRequest request = new ArtifactRequest(new DefaultArtifact(artifact.getGroupId(),
+                    artifact.getArtifactId(), SOURCES_CLASSIFIER, "jar", artifact.getBaseVersion()),
+                    this.repositories, null);
+            File file = this.system.resolveArtifact(this.session, request).getArtifact().getFile();
+            this.log.debug("Unpacking sources: " + file.getPath());
+            try (JarFile jar = new JarFile(file)) {
+                Map<String, Boolean> excluded = new HashMap<>();
+                Enumeration<JarEntry> entries = jar.entries();
+                while (entries.hasMoreElements()) {
+                    JarEntry entry = entries.nextElement();
+                    if (entry.isDirectory() || !entry.getName().endsWith(SOURCE_FILE_SUFFIX)
+                            || this.isExcluded(entry.getName(), excluded)) {
+                        continue;
+                    }
+                    File target = new File(this.directory, entry.getName());
+                    if (target.exists() // Project sources take precedence over dependency sources
+                            || !target.toPath().normalize().startsWith(this.directory.toPath().normalize())) {
+                        continue;
+                    }
+                    Files.createDirectories(target.getParentFile().toPath());
+                    try (InputStream input = jar.getInputStream(entry)) {
+                        Files.copy(input, target.toPath());
+                    }
+                }
+            }
+            result = true;
+        } catch (ArtifactResolutionException e) {
+            this.log.debug("Sources could not be resolved: " + artifact.getId());
+        } catch (IOException e) {
+            this.log.warn("Sources unpacking failed: " + e.getMessage());
+        }
+        this.unpacked.put(artifact, result);
+        return result;
+    }
+
+    /**
+     * Resolve the source file of dependency class
+     *
+     * @param clazz Class object
+     * @return Source file path or null if the source is not available
+     */
+    public synchronized String resolve(Class<?> clazz) {
+        Objects.requireNonNull(clazz, "clazz not specified");
+        while (clazz.getDeclaringClass() != null) {
+            clazz = clazz.getDeclaringClass();
+        }
+        File location = this.classLoader.locate(clazz.getName());
+        Artifact artifact = location == null ? null : this.artifacts.get(location);
+        if (artifact == null || !this.isIncluded(artifact) || !this.unpack(artifact)) {
+            return null;
+        }
+        File source = new File(this.directory, clazz.getName().replace('.', '/') + SOURCE_FILE_SUFFIX);
+        return source.isFile() ? source.getPath() : null;
+    }
+}
@@ -0,0 +1,158 @@
+package com.arsframework.plugin.apidoc;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Api snapshot test
+ *
+ * @author Woody
+ */
+public class ApiSnapshotTest {
+    /**
+     * Build the field mappings
+     *
+     * @param definitions Field path, type name and required flag triples
+     * @return Field path and field mappings
+     */
+    private static Map<String, ApiSnapshot.Field> fields(Object... definitions) {
+        Map<String, ApiSnapshot.Field> fields = new LinkedHashMap<>();
+        for (int i = 0; i < definitions.length; i += 3) {
+            fields.put((String) definitions[i], new ApiSnapshot.Field((String) definitions[i + 1], false,
+                    (Boolean) definitions[i + 2]));
+        }
+        return fields;
+    }
+
+    /**
+     * Build the endpoint
+     *
+     * @param key        Api key
+     * @param url        Request url
+     * @param method     Request method
+     * @param parameters Request parameter path and field mappings
+     * @param returned   Response field path and field mappings
+     * @return Endpoint object
+     */
+    private static ApiSnapshot.Endpoint endpoint(String key, String url, String method,
+                                                 Map<String, ApiSnapshot.Field> parameters,
+                                                 Map<String, ApiSnapshot.Field> returned) {
+        return new ApiSnapshot.Endpoint(key, url, Collections.singletonList(method), parameters, returned);
+    }
+
+    /**
+     * Build the endpoint without parameters and response fields
+     *
+     * @param key    Api key
+     * @param url    Request url
+     * @param method Request method
+     * @return Endpoint object
+     */
+    private static ApiSnapshot.Endpoint endpoint(String key, String url, String method) {
+        return endpoint(key, url, method, fields(), fields());
+    }
+
+    /**
+     * Get the breaking changes between two snapshots
+     *
+     * @param previous Previous endpoints
+     * @param present  Present endpoints
+     * @return Breaking changes
+     */
+    private static List<String> diff(List<ApiSnapshot.Endpoint> previous, List<ApiSnapshot.Endpoint> present) {
+        return new ApidocDiffMojo().diff(new ApiSnapshot(previous), new ApiSnapshot(present));
+    }
+
+    /**
+     * Get the endpoint keys of snapshot
+     *
+     * @param snapshot Api snapshot
+     * @return Endpoint keys
+     */
+    private static List<String> keys(ApiSnapshot snapshot) {
+        List<String> keys = new ArrayList<>();
+        snapshot.getEndpoints().forEach(endpoint -> keys.add(endpoint.key));
+        return keys;
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        ApiSnapshot snapshot = new ApiSnapshot(Arrays.asList(
+                endpoint("user.get", "/users/{id}", "get", fields("id", "java.lang.Long", true),
+                        fields("name", "java.lang.String", false)),
+                endpoint("user.list", "/users", "get"),
+                endpoint("user.list", "/v2/users", "post")));
+        Path file = Files.createTempFile("apidoc", ".snapshot");
+        try {
+            snapshot.write(file);
+            ApiSnapshot loaded = ApiSnapshot.read(file);
+            Assert.assertEquals(keys(snapshot), keys(loaded));
+            ApiSnapshot.Endpoint endpoint = loaded.getEndpoints().iterator().next();
+            Assert.assertEquals("/users/{id}", endpoint.url);
+            Assert.assertEquals(Collections.singletonList("get"), endpoint.methods);
+            Assert.assertEquals("java.lang.Long", endpoint.parameters.get("id").type);
+            Assert.assertTrue(endpoint.parameters.get("id").required);
+            Assert.assertEquals("java.lang.String", endpoint.returned.get("name").toString());
+            Assert.assertTrue(new ApidocDiffMojo().diff(snapshot, loaded).isEmpty());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testDuplicateKeys() {
+        ApiSnapshot.Endpoint first = endpoint("user.list", "/users", "get");
+        ApiSnapshot.Endpoint second = endpoint("user.list", "/v2/users", "post");
+        List<String> keys = keys(new ApiSnapshot(Arrays.asList(first, second)));
+        Assert.assertEquals(Arrays.asList("user.list GET /users", "user.list POST /v2/users"), keys);
+        List<String> reversed = keys(new ApiSnapshot(Arrays.asList(second, first)));
+        Collections.reverse(reversed);
+        Assert.assertEquals(keys, reversed);
+        Assert.assertEquals(Collections.singletonList("user.get"),
+                keys(new ApiSnapshot(Collections.singletonList(endpoint("user.get", "/users/{id}", "get")))));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testDuplicateRoutes() {
+        new ApiSnapshot(Arrays.asList(endpoint("user.list", "/users", "get"), endpoint("user.list", "/users", "get")));
+    }
+
+    @Test
+    public void testRemoved() {
+        Assert.assertEquals(Collections.singletonList("GET /users/{id}: endpoint removed"),
+                diff(Collections.singletonList(endpoint("user.get", "/users/{id}", "get")),
+                        Collections.singletonList(endpoint("user.get", "/v2/users/{id}", "get"))));
+        Assert.assertEquals(Collections.singletonList("POST /users: endpoint removed"),
+                diff(Collections.singletonList(endpoint("user.save", "/users", "post")),
+                        Collections.singletonList(endpoint("user.save", "/users", "put"))));
+        Assert.assertTrue(diff(Collections.singletonList(endpoint("user.get", "/users/{id}", "get")),
+                Collections.singletonList(endpoint("user.find", "/users/{id}", "get"))).isEmpty());
+    }
+
+    @Test
+    public void testParameters() {
+        List<String> changes = diff(Collections.singletonList(endpoint("user.get", "/users/{id}", "get",
+                fields("id", "java.lang.Long", true, "type", "java.lang.String", false),
+                fields("name", "java.lang.String", false))),
+                Collections.singletonList(endpoint("user.find", "/users/{id}", "get",
+                        fields("id", "java.lang.String", true, "type", "java.lang.String", true,
+                                "tenant", "java.lang.Long", true, "page", "java.lang.Integer", false),
+                        fields("name", "java.lang.Integer", false, "age", "java.lang.Integer", false))));
+        Assert.assertEquals(Arrays.asList(
+                "GET /users/{id}: parameter 'id' type changed from java.lang.Long to java.lang.String",
+                "GET /users/{id}: parameter 'type' became required",
+                "GET /users/{id}: new required parameter 'tenant'",
+                "GET /users/{id}: response field 'name' type changed from java.lang.String to java.lang.Integer"),
+                changes);
+    }
+}
@@ -0,0 +1,95 @@
+package com.arsframework.plugin.apidoc;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Class filter test
+ *
+ * @author Woody
+ */
+public class ClassFilterTest {
+    /**
+     * Deprecated class for annotation rules
+     */
+    @Deprecated
+    static class Legacy {
+    }
+
+    /**
+     * Build the exclude filter
+     *
+     * @param rules Exclude rules
+     * @return Class filter
+     */
+    private static ClassFilter exclude(String... rules) {
+        return new ClassFilter(null, Arrays.asList(rules));
+    }
+
+    @Test
+    public void testPrefix() {
+        ClassFilter filter = exclude("com.example.internal");
+        Assert.assertTrue(filter.isExcluded("com.example.internal.Foo"));
+        Assert.assertTrue(filter.isExcluded("com.example.internalx.Foo"));
+        Assert.assertFalse(filter.isExcluded("com.example.Foo"));
+        Assert.assertTrue(filter.isExcludedPackage("com.example.internal"));
+        Assert.assertFalse(filter.isExcludedPackage("com.example"));
+        Assert.assertFalse(filter.accept("com.example.internal.Foo"));
+        Assert.assertTrue(filter.accept("com.example.Foo"));
+    }
+
+    @Test
+    public void testSegmentWildcard() {
+        ClassFilter filter = exclude("com.*.internal.");
+        Assert.assertTrue(filter.isExcluded("com.a.internal.Foo"));
+        Assert.assertFalse(filter.isExcluded("com.a.b.internal.Foo"));
+        Assert.assertTrue(filter.isExcludedPackage("com.a.internal"));
+        Assert.assertFalse(filter.isExcludedPackage("com.a"));
+    }
+
+    @Test
+    public void testAnchoredWildcard() {
+        ClassFilter filter = exclude("com.example.*");
+        Assert.assertTrue(filter.isExcluded("com.example.Foo"));
+        Assert.assertFalse(filter.isExcluded("com.example.sub.Foo"));
+        Assert.assertFalse(filter.isExcludedPackage("com.example"));
+        Assert.assertFalse(filter.isExcludedPackage("com.example.sub"));
+    }
+
+    @Test
+    public void testAnyWildcard() {
+        ClassFilter filter = exclude("com.**.internal.", "org.example.**");
+        Assert.assertTrue(filter.isExcluded("com.a.internal.Foo"));
+        Assert.assertTrue(filter.isExcluded("com.a.b.internal.Foo"));
+        Assert.assertFalse(filter.isExcluded("com.a.b.Foo"));
+        Assert.assertTrue(filter.isExcludedPackage("com.a.b.internal"));
+        Assert.assertTrue(filter.isExcluded("org.example.Foo"));
+        Assert.assertTrue(filter.isExcludedPackage("org.example.sub"));
+    }
+
+    @Test
+    public void testInclude() {
+        ClassFilter filter = new ClassFilter(Collections.singletonList("com.api."),
+                Collections.singletonList("com.api.internal."));
+        Assert.assertTrue(filter.accept("com.api.Foo"));
+        Assert.assertFalse(filter.accept("com.other.Foo"));
+        Assert.assertFalse(filter.accept("com.api.internal.Foo"));
+        Assert.assertTrue(filter.isAcceptablePackage("com"));
+        Assert.assertTrue(filter.isAcceptablePackage("com.api.v1"));
+        Assert.assertFalse(filter.isAcceptablePackage("com.api.internal"));
+        Assert.assertFalse(filter.isAcceptablePackage("org"));
+    }
+
+    @Test
+    public void testAnnotation() {
+        Assert.assertFalse(exclude("@java.lang.Deprecated").accept(Legacy.class));
+        Assert.assertTrue(exclude("@java.lang.Deprecated").accept(ClassFilterTest.class));
+        ClassFilter filter = new ClassFilter(Collections.singletonList("@java.lang.Deprecated"), null);
+        Assert.assertTrue(filter.accept(Legacy.class));
+        Assert.assertFalse(filter.accept(ClassFilterTest.class));
+        Assert.assertTrue(filter.isAcceptablePackage("org"));
+    }
+}
@@ -0,0 +1,148 @@
+package com.arsframework.plugin.apidoc;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import com.sun.javadoc.ClassDoc;
+import com.sun.javadoc.FieldDoc;
+import com.sun.javadoc.MethodDoc;
+import com.sun.javadoc.ParamTag;
+import com.sun.javadoc.RootDoc;
+import com.sun.javadoc.Tag;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Document snapshot test, which runs the real javadoc tool over generated sources
+ *
+ * @author Woody
+ */
+public class DocumentSnapshotTest {
+    /**
+     * Write the source file
+     *
+     * @param directory Source directory
+     * @param name      Qualified class name
+     * @param lines     Source lines
+     * @return Source file
+     * @throws IOException IO exception
+     */
+    private static File write(Path directory, String name, String... lines) throws IOException {
+        Path file = directory.resolve(name.replace('.', '/') + ".java");
+        Files.createDirectories(file.getParent());
+        Files.write(file, Arrays.asList(lines), StandardCharsets.UTF_8);
+        return file.toFile();
+    }
+
+    /**
+     * Run javadoc over the source file and snapshot the class document
+     *
+     * @param directory Source directory
+     * @param source    Source file
+     * @param name      Qualified class name
+     * @return Class document snapshot
+     */
+    private static ClassDoc document(Path directory, File source, String name) {
+        RootDoc root = DocumentLoader.Doclet.execute(DocumentSnapshotTest.class.getClassLoader(),
+                System.getProperty("java.class.path"), directory.toString(), source.getPath());
+        Assert.assertNotNull(root);
+        ClassDoc doc = root.classNamed(name);
+        Assert.assertNotNull(doc);
+        return DocumentSnapshot.of(doc);
+    }
+
+    @Test
+    public void testSnapshot() throws IOException {
+        Path directory = Files.createTempDirectory("apidoc");
+        write(directory, "p.Base",
+                "package p;",
+                "/** Base comment. */",
+                "public class Base {",
+                "    /** Base id. */",
+                "    protected Long id;",
+                "}");
+        File source = write(directory, "p.Dto",
+                "package p;",
+                "/**",
+                " * Dto comment. See {@link Base}.",
+                " * @author Woody",
+                " */",
+                "public class Dto extends Base implements java.io.Serializable {",
+                "    /** User name {@code x}. */",
+                "    private String name;",
+                "    /**",
+                "     * Get name.",
+                "     * @param prefix Prefix text",
+                "     * @return Name {@code value}",
+                "     */",
+                "    public String getName(String prefix) { return prefix + name; }",
+                "}");
+
+        ClassDoc doc = document(directory, source, "p.Dto");
+        Assert.assertEquals("p.Dto", doc.toString());
+        Assert.assertTrue(doc.commentText().startsWith("Dto comment."));
+        Assert.assertEquals("Woody", doc.tags("author")[0].text());
+        Assert.assertEquals(1, doc.tags("@author").length);
+        Assert.assertTrue(doc.isClass() && doc.isOrdinaryClass() && !doc.isInterface());
+        Assert.assertEquals("java.io.Serializable", doc.interfaces()[0].qualifiedName());
+
+        Assert.assertEquals(0, doc.fields(true).length);
+        FieldDoc field = doc.fields(false)[0];
+        Assert.assertEquals("name", field.name());
+        Assert.assertEquals("java.lang.String", field.type().qualifiedTypeName());
+        Assert.assertSame(doc, field.containingClass());
+        Assert.assertTrue(field.commentText().startsWith("User name"));
+        Tag code = Arrays.stream(field.inlineTags()).filter(tag -> tag.kind().equals("@code")).findFirst()
+                .orElse(null);
+        Assert.assertNotNull(code);
+        Assert.assertSame(code, code.inlineTags()[0]);
+
+        MethodDoc method = doc.methods(false)[0];
+        Assert.assertEquals(1, doc.methods(true).length);
+        Assert.assertEquals("getName", method.name());
+        Assert.assertEquals("java.lang.String", method.returnType().qualifiedTypeName());
+        Assert.assertEquals("prefix", method.parameters()[0].name());
+        Assert.assertEquals("String", method.parameters()[0].typeName());
+        ParamTag param = method.paramTags()[0];
+        Assert.assertEquals("prefix", param.parameterName());
+        Assert.assertEquals("Prefix text", param.parameterComment());
+        Tag returned = method.tags("return")[0];
+        Assert.assertTrue(returned.text().startsWith("Name"));
+        Assert.assertEquals(2, returned.inlineTags().length);
+        Assert.assertSame(method, returned.holder());
+
+        ClassDoc base = doc.superclass();
+        Assert.assertEquals("p.Base", base.qualifiedName());
+        Assert.assertEquals("Base comment.", base.commentText());
+        Assert.assertEquals("Base id.", base.fields(false)[0].commentText());
+        Assert.assertEquals("java.lang.Object", base.superclass().qualifiedName());
+        Assert.assertEquals(0, base.superclass().methods(false).length);
+        Assert.assertTrue(doc.subclassOf(base));
+        Assert.assertNull(doc.findClass("p.Base"));
+    }
+
+    @Test
+    public void testEnum() throws IOException {
+        Path directory = Files.createTempDirectory("apidoc");
+        File source = write(directory, "p.Status",
+                "package p;",
+                "/** Status. */",
+                "public enum Status {",
+                "    /** Enabled status */",
+                "    ENABLED,",
+                "    /** Disabled status */",
+                "    DISABLED",
+                "}");
+
+        // The doclet runs in the default language version, enum constants are listed as fields
+        ClassDoc doc = document(directory, source, "p.Status");
+        Assert.assertEquals(2, doc.fields(false).length);
+        Assert.assertEquals("ENABLED", doc.fields(false)[0].name());
+        Assert.assertEquals("Enabled status", doc.fields(false)[0].commentText());
+        Assert.assertEquals("Disabled status", doc.fields(false)[1].commentText());
+    }
+}
@@ -0,0 +1,72 @@
+package com.arsframework.plugin.apidoc;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Scanner;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Indexed class loader test
+ *
+ * @author Woody
+ */
+public class IndexedClassLoaderTest {
+    /**
+     * Create a jar file with the resource
+     *
+     * @param resource Resource path
+     * @param content  Resource content
+     * @return Jar file
+     * @throws IOException IO exception
+     */
+    private static File jar(String resource, String content) throws IOException {
+        Path file = Files.createTempFile("apidoc", ".jar");
+        try (JarOutputStream output = new JarOutputStream(Files.newOutputStream(file))) {
+            output.putNextEntry(new JarEntry(resource));
+            output.write(content.getBytes(StandardCharsets.UTF_8));
+            output.closeEntry();
+        }
+        return file.toFile();
+    }
+
+    /**
+     * Read the stream content
+     *
+     * @param input Input stream
+     * @return Stream content
+     */
+    private static String read(InputStream input) {
+        try (Scanner scanner = new Scanner(input, StandardCharsets.UTF_8.name())) {
+            return scanner.useDelimiter("\\A").next();
+        }
+    }
+
+    @Test
+    public void testResource() throws IOException {
+        File jar = jar("p/message.txt", "hello");
+        try (IndexedClassLoader loader = new IndexedClassLoader(Collections.singletonList(jar), null)) {
+            Assert.assertEquals("hello", read(loader.getResourceAsStream("p/message.txt")));
+            Assert.assertNull(loader.getResourceAsStream("p/missing.txt"));
+            Assert.assertEquals("", loader.getClasspath());
+
+            URL url = loader.getResource("p/message.txt");
+            Assert.assertNotNull(url);
+            URLConnection connection = url.openConnection();
+            Assert.assertFalse(connection.getUseCaches());
+            Assert.assertEquals("hello", read(connection.getInputStream()));
+        } finally {
+            Files.delete(jar.toPath());
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.arsframework.plugin.apidoc;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Json writer test
+ *
+ * @author Woody
+ */
+public class JsonWriterTest {
+    @Test
+    public void testEscape() throws IOException {
+        StringWriter output = new StringWriter();
+        new JsonWriter(output).value("a\"b\\c\nd\re\tf\u0001g\u001fh/中").flush();
+        Assert.assertEquals("\"a\\\"b\\\\c\\nd\\re\\tf\\u0001g\\u001fh/中\"", output.toString());
+    }
+
+    @Test
+    public void testStructure() throws IOException {
+        StringWriter output = new StringWriter();
+        new JsonWriter(output).beginObject()
+                .property("na\"me", "value")
+                .property("skipped", null)
+                .name("items").beginArray().value(1).value(new BigDecimal("1E+3")).value(true).value((String) null)
+                .beginObject().endObject().endArray()
+                .name("nan").value(Double.NaN)
+                .name("empty").beginArray().endArray()
+                .endObject().flush();
+        Assert.assertEquals("{\"na\\\"me\":\"value\",\"items\":[1,1000,true,null,{}],\"nan\":null,\"empty\":[]}",
+                output.toString());
+    }
+}